@@ -198,19 +198,19 @@ export class DashboardComponent implements OnInit {
     this.error.set(null);
 
     forkJoin({
-      orders: this.orderApi.listOrders(),
+      orders: this.orderApi.listAllOrders(),
       products: this.productApi.listProducts(),
-      inventory: this.inventoryApi.listInventory(),
+      lowStock: this.inventoryApi.listAllLowStock(10),
       events: this.outboxApi.listEvents()
     }).subscribe({
-      next: ({ orders, products, inventory, events }) => {
+      next: ({ orders, products, lowStock, events }) => {
         this.stats.set({
           pendingOrders: orders.filter((o) => o.status === 'CREATED').length,
           paidOrders: orders.filter((o) => o.status === 'PAID').length,
           activeProducts: products.filter((p) => p.active).length,
           totalProducts: products.length,
-          lowStock: inventory.filter((i) => i.available > 0 && i.available <= 10).length,
-          outOfStock: inventory.filter((i) => i.available === 0).length,
+          lowStock: lowStock.filter((i) => i.available > 0).length,
+          outOfStock: lowStock.filter((i) => i.available === 0).length,
           unpublishedEvents: events.filter((e) => !e.publishedAt).length
         });
 
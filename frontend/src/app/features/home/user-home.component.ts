@@ -156,7 +156,7 @@ export class UserHomeComponent implements OnInit {
   refresh(): void {
     this.loading.set(true);
     this.error.set(null);
-    this.orderApi.listMyOrders().subscribe({
+    this.orderApi.listAllMyOrders().subscribe({
       next: (orders) => {
         this.orders.set(
           [...orders]
@@ -8,7 +8,7 @@ import { MatProgressSpinnerModule } from '@angular/material/progress-spinner';
 import { MatTooltipModule } from '@angular/material/tooltip';
 import { PageHeaderComponent } from '../../shared/components/page-header/page-header.component';
 import { ShortIdPipe } from '../../shared/pipes/short-id.pipe';
-import { InventoryApiResponse, InventoryApiService } from '../../shared/services/api.service';
+import { InventoryApiResponse, InventoryApiService, Page } from '../../shared/services/api.service';
 import { AdjustStockDialogComponent } from '../products/adjust-stock-dialog.component';
 
 type InventoryRow = InventoryApiResponse & { stockStatus: 'IN STOCK' | 'LOW STOCK' | 'OUT OF STOCK' };
@@ -87,11 +87,16 @@ type InventoryRow = InventoryApiResponse & { stockStatus: 'IN STOCK' | 'LOW STOC
         <mat-header-row *matHeaderRowDef="columns"></mat-header-row>
         <mat-row *matRowDef="let row; columns: columns"></mat-row>
       </mat-table>
+
+      <div class="load-more" *ngIf="!loading() && !error() && nextCursor()">
+        <button mat-stroked-button [disabled]="loadingMore()" (click)="loadMore()">Load more</button>
+      </div>
     </section>
   `,
   styles: [
     `
       .loading { display: flex; justify-content: center; padding: 32px; }
+      .load-more { display: flex; justify-content: center; padding: 16px; }
       .error-box {
         color: var(--ops-danger);
         background: var(--ops-danger-bg);
@@ -108,7 +113,9 @@ export class InventoryComponent implements OnInit {
 
   columns = ['name', 'productId', 'available', 'reserved', 'version', 'status', 'actions'];
   readonly inventory = signal<InventoryRow[]>([]);
+  readonly nextCursor = signal<string | null>(null);
   readonly loading = signal(false);
+  readonly loadingMore = signal(false);
   readonly error = signal<string | null>(null);
 
   ngOnInit(): void {
@@ -123,14 +130,9 @@ export class InventoryComponent implements OnInit {
     this.loading.set(true);
     this.error.set(null);
     this.inventoryApi.listInventory().subscribe({
-      next: (inventory) => {
-        this.inventory.set(
-          inventory.map((item) => ({
-            ...item,
-            stockStatus:
-              item.available === 0 ? 'OUT OF STOCK' : item.available <= 10 ? 'LOW STOCK' : 'IN STOCK'
-          }))
-        );
+      next: (page) => {
+        this.inventory.set(this.toRows(page));
+        this.nextCursor.set(page.nextCursor);
         this.loading.set(false);
       },
       error: () => {
@@ -140,6 +142,32 @@ export class InventoryComponent implements OnInit {
     });
   }
 
+  loadMore(): void {
+    const cursor = this.nextCursor();
+    if (!cursor) {
+      return;
+    }
+    this.loadingMore.set(true);
+    this.inventoryApi.listInventory(cursor).subscribe({
+      next: (page) => {
+        this.inventory.update((rows) => [...rows, ...this.toRows(page)]);
+        this.nextCursor.set(page.nextCursor);
+        this.loadingMore.set(false);
+      },
+      error: () => {
+        this.error.set('Could not load more inventory');
+        this.loadingMore.set(false);
+      }
+    });
+  }
+
+  private toRows(page: Page<InventoryApiResponse>): InventoryRow[] {
+    return page.items.map((item) => ({
+      ...item,
+      stockStatus: item.available === 0 ? 'OUT OF STOCK' : item.available <= 10 ? 'LOW STOCK' : 'IN STOCK'
+    }));
+  }
+
   openAdjust(row: InventoryRow): void {
     this.dialog
       .open(AdjustStockDialogComponent, {
@@ -79,11 +79,16 @@ import { NewOrderDialogComponent } from './new-order-dialog.component';
         <mat-header-row *matHeaderRowDef="columns"></mat-header-row>
         <mat-row *matRowDef="let row; columns: columns"></mat-row>
       </mat-table>
+
+      <div class="load-more" *ngIf="!loading() && nextCursor()">
+        <button mat-stroked-button [disabled]="loadingMore()" (click)="loadMore()">Load more</button>
+      </div>
     </section>
   `,
   styles: [
     `
       .loading { display: flex; justify-content: center; padding: 32px; }
+      .load-more { display: flex; justify-content: center; padding: 16px; }
       .error-box {
         color: var(--ops-danger);
         background: var(--ops-danger-bg);
@@ -108,7 +113,9 @@ export class MyOrdersComponent implements OnInit {
 
   columns = ['id', 'items', 'total', 'status', 'created', 'actions'];
   readonly data = signal<OrderApiResponse[]>([]);
+  readonly nextCursor = signal<string | null>(null);
   readonly loading = signal(false);
+  readonly loadingMore = signal(false);
   readonly error = signal<string | null>(null);
 
   ngOnInit(): void {
@@ -119,8 +126,9 @@ export class MyOrdersComponent implements OnInit {
     this.loading.set(true);
     this.error.set(null);
     this.orderApi.listMyOrders().subscribe({
-      next: (orders) => {
-        this.data.set(orders);
+      next: (page) => {
+        this.data.set(page.items);
+        this.nextCursor.set(page.nextCursor);
         this.loading.set(false);
       },
       error: () => {
@@ -130,6 +138,25 @@ export class MyOrdersComponent implements OnInit {
     });
   }
 
+  loadMore(): void {
+    const cursor = this.nextCursor();
+    if (!cursor) {
+      return;
+    }
+    this.loadingMore.set(true);
+    this.orderApi.listMyOrders(cursor).subscribe({
+      next: (page) => {
+        this.data.update((orders) => [...orders, ...page.items]);
+        this.nextCursor.set(page.nextCursor);
+        this.loadingMore.set(false);
+      },
+      error: () => {
+        this.error.set('Could not load more orders');
+        this.loadingMore.set(false);
+      }
+    });
+  }
+
   openNewOrder(): void {
     this.dialog
       .open(NewOrderDialogComponent, { width: '520px' })
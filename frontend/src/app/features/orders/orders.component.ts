@@ -10,7 +10,7 @@ import { PageHeaderComponent } from '../../shared/components/page-header/page-he
 import { ShortIdPipe } from '../../shared/pipes/short-id.pipe';
 import { OrderDetailDialogComponent } from './order-detail-dialog.component';
 import { ConfirmActionDialogComponent } from './confirm-action-dialog.component';
-import { OrderApiResponse, OrderApiService } from '../../shared/services/api.service';
+import { OrderApiResponse, OrderApiService, Page } from '../../shared/services/api.service';
 
 type OrderRow = OrderApiResponse & { total: number };
 
@@ -37,7 +37,7 @@ type OrderRow = OrderApiResponse & { total: number };
       <div class="stat-cards">
         <div class="stat-card">
           <div class="stat-label">Total orders</div>
-          <div class="stat-value">{{ orders().length }}</div>
+          <div class="stat-value">{{ orders().length }}{{ nextCursor() ? '+' : '' }}</div>
         </div>
         <div class="stat-card">
           <div class="stat-label">Pending payment</div>
@@ -103,11 +103,16 @@ type OrderRow = OrderApiResponse & { total: number };
         <mat-header-row *matHeaderRowDef="columns"></mat-header-row>
         <mat-row *matRowDef="let row; columns: columns"></mat-row>
       </mat-table>
+
+      <div class="load-more" *ngIf="!loading() && !error() && nextCursor()">
+        <button mat-stroked-button [disabled]="loadingMore()" (click)="loadMore()">Load more</button>
+      </div>
     </section>
   `,
   styles: [
     `
       .loading { display: flex; justify-content: center; padding: 32px; }
+      .load-more { display: flex; justify-content: center; padding: 16px; }
       .error-box {
         color: var(--ops-danger);
         background: var(--ops-danger-bg);
@@ -124,7 +129,9 @@ export class OrdersComponent implements OnInit {
 
   columns = ['id', 'customer', 'status', 'createdAt', 'total', 'actions'];
   readonly orders = signal<OrderRow[]>([]);
+  readonly nextCursor = signal<string | null>(null);
   readonly loading = signal(false);
+  readonly loadingMore = signal(false);
   readonly error = signal<string | null>(null);
 
   readonly pendingCount = computed(() => this.orders().filter((o) => o.status === 'CREATED').length);
@@ -159,13 +166,9 @@ export class OrdersComponent implements OnInit {
     this.loading.set(true);
     this.error.set(null);
     this.orderApi.listOrders().subscribe({
-      next: (orders) => {
-        this.orders.set(
-          orders.map((order) => ({
-            ...order,
-            total: order.items.reduce((sum, item) => sum + item.unitPriceAtPurchase * item.quantity, 0)
-          }))
-        );
+      next: (page) => {
+        this.orders.set(this.toRows(page));
+        this.nextCursor.set(page.nextCursor);
         this.loading.set(false);
       },
       error: () => {
@@ -174,4 +177,30 @@ export class OrdersComponent implements OnInit {
       }
     });
   }
+
+  loadMore(): void {
+    const cursor = this.nextCursor();
+    if (!cursor) {
+      return;
+    }
+    this.loadingMore.set(true);
+    this.orderApi.listOrders(cursor).subscribe({
+      next: (page) => {
+        this.orders.update((orders) => [...orders, ...this.toRows(page)]);
+        this.nextCursor.set(page.nextCursor);
+        this.loadingMore.set(false);
+      },
+      error: () => {
+        this.error.set('Could not load more orders');
+        this.loadingMore.set(false);
+      }
+    });
+  }
+
+  private toRows(page: Page<OrderApiResponse>): OrderRow[] {
+    return page.items.map((order) => ({
+      ...order,
+      total: order.items.reduce((sum, item) => sum + item.unitPriceAtPurchase * item.quantity, 0)
+    }));
+  }
 }
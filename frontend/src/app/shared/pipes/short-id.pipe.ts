@@ -2,7 +2,8 @@ import { Pipe, PipeTransform } from '@angular/core';
 
 /**
  * Turns a raw UUID into a compact, human-friendly reference.
- * `shortId('3f2a9c1b-...', 'ORD')` → `ORD-3F2A9C`.
+ * `shortId('...-9e5c3f2a9c1b', 'ORD')` → `ORD-2A9C1B`.
+ * Uses the last characters: time-ordered (v7) ids share their leading ones.
  */
 @Pipe({ name: 'shortId', standalone: true })
 export class ShortIdPipe implements PipeTransform {
@@ -10,7 +11,7 @@ export class ShortIdPipe implements PipeTransform {
     if (!id) {
       return '—';
     }
-    const short = id.replace(/-/g, '').slice(0, 6).toUpperCase();
+    const short = id.replace(/-/g, '').slice(-6).toUpperCase();
     return prefix ? `${prefix}-${short}` : short;
   }
 }
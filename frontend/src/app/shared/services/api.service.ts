@@ -1,6 +1,30 @@
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpResponse } from '@angular/common/http';
 import { Injectable } from '@angular/core';
-import { Observable } from 'rxjs';
+import { EMPTY, Observable, expand, map, reduce } from 'rxjs';
+
+const NEXT_CURSOR = 'X-Next-Cursor';
+
+/** One page of a cursor-paged list; pass nextCursor back to get the following page. */
+export interface Page<T> {
+  items: T[];
+  nextCursor: string | null;
+}
+
+function toPage<T>(response: HttpResponse<T[]>): Page<T> {
+  return { items: response.body ?? [], nextCursor: response.headers.get(NEXT_CURSOR) };
+}
+
+/** Follows the cursor until the last page and emits everything at once. */
+function allPages<T>(fetch: (cursor?: string) => Observable<Page<T>>): Observable<T[]> {
+  return fetch().pipe(
+    expand((page) => (page.nextCursor ? fetch(page.nextCursor) : EMPTY)),
+    reduce((all, page) => all.concat(page.items), [] as T[])
+  );
+}
+
+function pageParams(cursor?: string, params: Record<string, string> = {}): Record<string, string> {
+  return cursor ? { ...params, cursor } : params;
+}
 
 export interface ProductApiResponse {
   id: string;
@@ -52,6 +76,7 @@ export interface OrderApiResponse {
   status: string;
   items: OrderItemApiResponse[];
   createdAt: string;
+  holdExpiresAt: string | null;
 }
 
 export interface CreateOrderItemRequest {
@@ -100,8 +125,22 @@ export class ProductApiService {
 export class InventoryApiService {
   constructor(private readonly http: HttpClient) {}
 
-  listInventory(): Observable<InventoryApiResponse[]> {
-    return this.http.get<InventoryApiResponse[]>('/inventory');
+  listInventory(cursor?: string): Observable<Page<InventoryApiResponse>> {
+    return this.http
+      .get<InventoryApiResponse[]>('/inventory', { params: pageParams(cursor), observe: 'response' })
+      .pipe(map((response) => toPage(response)));
+  }
+
+  /** Every product with at most `threshold` available, page after page. */
+  listAllLowStock(threshold: number): Observable<InventoryApiResponse[]> {
+    return allPages((cursor) =>
+      this.http
+        .get<InventoryApiResponse[]>('/inventory', {
+          params: pageParams(cursor, { lowStock: String(threshold) }),
+          observe: 'response'
+        })
+        .pipe(map((response) => toPage(response)))
+    );
   }
 }
 
@@ -109,12 +148,25 @@ export class InventoryApiService {
 export class OrderApiService {
   constructor(private readonly http: HttpClient) {}
 
-  listOrders(): Observable<OrderApiResponse[]> {
-    return this.http.get<OrderApiResponse[]>('/orders');
+  listOrders(cursor?: string): Observable<Page<OrderApiResponse>> {
+    return this.http
+      .get<OrderApiResponse[]>('/orders', { params: pageParams(cursor), observe: 'response' })
+      .pipe(map((response) => toPage(response)));
+  }
+
+  /** Every order, page after page; for views that aggregate over all of them. */
+  listAllOrders(): Observable<OrderApiResponse[]> {
+    return allPages((cursor) => this.listOrders(cursor));
+  }
+
+  listMyOrders(cursor?: string): Observable<Page<OrderApiResponse>> {
+    return this.http
+      .get<OrderApiResponse[]>('/orders/my', { params: pageParams(cursor), observe: 'response' })
+      .pipe(map((response) => toPage(response)));
   }
 
-  listMyOrders(): Observable<OrderApiResponse[]> {
-    return this.http.get<OrderApiResponse[]>('/orders/my');
+  listAllMyOrders(): Observable<OrderApiResponse[]> {
+    return allPages((cursor) => this.listMyOrders(cursor));
   }
 
   getOrder(orderId: string): Observable<OrderApiResponse> {
@@ -0,0 +1,11 @@
+package com.example.order_management_api.api;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+public record CreateOrderBatchRequest(
+        @NotEmpty @Size(max = 1000) @Valid List<CreateOrderRequest> orders
+) {}
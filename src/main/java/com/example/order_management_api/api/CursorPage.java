@@ -0,0 +1,14 @@
+package com.example.order_management_api.api;
+
+import java.util.List;
+import java.util.function.Function;
+
+/** One page of a cursor-paginated listing; {@code nextCursor} is null on the last page. */
+public record CursorPage<T>(
+        List<T> items,
+        String nextCursor
+) {
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor);
+    }
+}
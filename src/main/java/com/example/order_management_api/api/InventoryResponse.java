@@ -8,5 +8,6 @@ public record InventoryResponse(
         String productName,
         int available,
         int reserved,
-        Long version
+        Long version,
+        int stripes
 ) {}
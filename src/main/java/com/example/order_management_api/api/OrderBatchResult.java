@@ -0,0 +1,20 @@
+package com.example.order_management_api.api;
+
+/**
+ * Outcome of one order in a batch, in request order: {@code status} is the HTTP
+ * status the order would have got on its own, with either {@code order} or {@code error} set.
+ */
+public record OrderBatchResult(
+        int index,
+        int status,
+        OrderResponse order,
+        String error
+) {
+    public static OrderBatchResult created(int index, OrderResponse order) {
+        return new OrderBatchResult(index, 201, order, null);
+    }
+
+    public static OrderBatchResult failed(int index, int status, String error) {
+        return new OrderBatchResult(index, status, null, error);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.order_management_api.api;
+
+import com.example.order_management_api.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in an order listing: the (createdAt, id) of the last order returned.
+ * Travels as an opaque URL-safe token; the next page starts right after it.
+ */
+public record OrderCursor(Instant createdAt, UUID id) {
+
+    public String encode() {
+        String raw = createdAt + "," + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int comma = raw.indexOf(',');
+            return new OrderCursor(Instant.parse(raw.substring(0, comma)), UUID.fromString(raw.substring(comma + 1)));
+        } catch (RuntimeException ex) {
+            throw new InvalidCursorException(token);
+        }
+    }
+}
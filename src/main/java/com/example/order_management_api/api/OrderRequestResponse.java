@@ -0,0 +1,21 @@
+package com.example.order_management_api.api;
+
+import com.example.order_management_api.intake.OrderRequestStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * State of an asynchronously accepted order. Once {@code COMPLETED}, {@code order}
+ * holds the placed order; once {@code FAILED}, {@code errorStatus} / {@code error}
+ * say why, as the synchronous endpoint would have.
+ */
+public record OrderRequestResponse(
+        UUID id,
+        OrderRequestStatus status,
+        OrderResponse order,
+        Integer errorStatus,
+        String error,
+        Instant createdAt,
+        Instant completedAt
+) {}
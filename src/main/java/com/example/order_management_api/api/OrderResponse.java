@@ -11,5 +11,6 @@ public record OrderResponse(
         String customerEmail,
         OrderStatus status,
         List<OrderItemResponse> items,
-        Instant createdAt
+        Instant createdAt,
+        Instant holdExpiresAt
 ) {}
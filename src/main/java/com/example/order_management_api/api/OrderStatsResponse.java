@@ -0,0 +1,15 @@
+package com.example.order_management_api.api;
+
+import com.example.order_management_api.model.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/** Orders created on {@code day} (UTC) that are now in {@code status}; {@code day} is null in totals. */
+public record OrderStatsResponse(
+        LocalDate day,
+        OrderStatus status,
+        long orders,
+        long items,
+        BigDecimal revenue
+) {}
@@ -0,0 +1,14 @@
+package com.example.order_management_api.api;
+
+import com.example.order_management_api.model.OrderStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/** An order without its items, for list views. */
+public record OrderSummaryResponse(
+        UUID id,
+        OrderStatus status,
+        Instant createdAt,
+        Instant holdExpiresAt
+) {}
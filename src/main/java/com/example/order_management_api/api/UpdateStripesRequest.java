@@ -0,0 +1,8 @@
+package com.example.order_management_api.api;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+public record UpdateStripesRequest(
+        @Min(1) @Max(64) int stripes
+) {}
@@ -0,0 +1,31 @@
+package com.example.order_management_api.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+@Configuration
+@ConditionalOnProperty(
+        name = "app.kafka.consumer.enabled",
+        havingValue = "true",
+        matchIfMissing = true
+)
+public class KafkaConsumerConfig {
+
+    /**
+     * For throwaway consumer groups: records are never acknowledged, so the group
+     * commits no offsets and the broker forgets it once its member leaves.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> uncommittedListenerContainerFactory(
+            ConsumerFactory<Object, Object> consumerFactory
+    ) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+}
@@ -1,29 +1,62 @@
 package com.example.order_management_api.controller;
 
+import com.example.order_management_api.api.CursorPage;
 import com.example.order_management_api.api.InventoryResponse;
+import com.example.order_management_api.api.UpdateStripesRequest;
 import com.example.order_management_api.model.Inventory;
-import com.example.order_management_api.repository.InventoryRepository;
+import com.example.order_management_api.repository.InventoryFilter;
+import com.example.order_management_api.service.InventoryService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/inventory")
 @RequiredArgsConstructor
 public class InventoryController {
 
-    private final InventoryRepository inventoryRepository;
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
 
+    private final InventoryService inventoryService;
+
+    /**
+     * Inventories by product id, paged like the order listings: the X-Next-Cursor header
+     * carries the cursor of the next page. {@code lowStock} keeps products with at most
+     * that much available stock; {@code active} filters on the product flag.
+     */
     @GetMapping
     @Transactional(readOnly = true)
-    public List<InventoryResponse> listInventory() {
-        return inventoryRepository.findAll().stream()
-                .map(this::toResponse)
-                .toList();
+    public ResponseEntity<List<InventoryResponse>> listInventory(
+            @RequestParam(required = false) Integer lowStock,
+            @RequestParam(required = false) Boolean active,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        CursorPage<InventoryResponse> page = inventoryService.listInventories(new InventoryFilter(lowStock, active), cursor, limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR, page.nextCursor());
+        }
+        return response.body(page.items());
+    }
+
+    /**
+     * Splits a hot product's stock over N rows so concurrent reservations stop
+     * serializing on one row lock; 1 turns striping off again.
+     */
+    @PutMapping("/{productId}/stripes")
+    @Transactional
+    public InventoryResponse updateStripes(
+            @PathVariable UUID productId,
+            @Valid @RequestBody UpdateStripesRequest request
+    ) {
+        return toResponse(inventoryService.restripe(productId, request.stripes()));
     }
 
     private InventoryResponse toResponse(Inventory inventory) {
@@ -31,9 +64,10 @@ public class InventoryController {
                 inventory.getId(),
                 inventory.getProduct().getId(),
                 inventory.getProduct().getName(),
-                inventory.getAvailable(),
-                inventory.getReserved(),
-                inventory.getVersion()
+                inventory.getTotalAvailable(),
+                inventory.getTotalReserved(),
+                inventory.getVersion(),
+                inventory.getStripeCount()
         );
     }
 }
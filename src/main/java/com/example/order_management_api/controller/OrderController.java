@@ -1,20 +1,36 @@
 package com.example.order_management_api.controller;
 
+import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import com.example.order_management_api.api.CreateOrderBatchRequest;
 import com.example.order_management_api.api.CreateOrderRequest;
+import com.example.order_management_api.api.CursorPage;
+import com.example.order_management_api.api.OrderBatchResult;
+import com.example.order_management_api.api.OrderRequestResponse;
 import com.example.order_management_api.api.OrderResponse;
+import com.example.order_management_api.api.OrderSummaryResponse;
+import com.example.order_management_api.export.OrderExportFormat;
+import com.example.order_management_api.export.OrderExporter;
+import com.example.order_management_api.idempotency.IdempotencyService;
+import com.example.order_management_api.intake.OrderIntakeService;
 import com.example.order_management_api.model.OrderStatus;
+import com.example.order_management_api.repository.OrderFilter;
 import com.example.order_management_api.security.CurrentUser;
 import com.example.order_management_api.service.OrderService;
 
@@ -23,41 +39,174 @@ import com.example.order_management_api.service.OrderService;
 @RequiredArgsConstructor
 public class OrderController {
 
+    private static final String RESPOND_ASYNC = "respond-async";
+    private static final String NEXT_CURSOR = "X-Next-Cursor";
+    private static final String EXPORT_UNTIL = "X-Export-Until";
+
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final OrderIntakeService orderIntakeService;
+    private final OrderExporter orderExporter;
 
+    /**
+     * With an Idempotency-Key, a retried request returns the first order instead of
+     * placing another. With {@code Prefer: respond-async} the order is only queued:
+     * 202 with the location of a request resource to poll.
+     */
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(
+    public ResponseEntity<?> createOrder(
             @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestHeader(name = "Prefer", required = false) String prefer,
             @AuthenticationPrincipal Jwt jwt
     ) {
-        OrderResponse created = orderService.createOrder(request, CurrentUser.from(jwt));
-        return ResponseEntity
-                .created(URI.create("/orders/" + created.id()))
-                .body(created);
+        CurrentUser currentUser = CurrentUser.from(jwt);
+
+        if (prefer != null && prefer.contains(RESPOND_ASYNC) && orderIntakeService.isEnabled()) {
+            return idempotencyService.execute(idempotencyKey, currentUser, "order.create-async", request, OrderRequestResponse.class, () -> {
+                OrderRequestResponse accepted = orderIntakeService.enqueue(request, currentUser);
+                return ResponseEntity
+                        .accepted()
+                        .location(URI.create("/orders/requests/" + accepted.id()))
+                        .header("Preference-Applied", RESPOND_ASYNC)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .body(accepted);
+            });
+        }
+
+        return idempotencyService.execute(idempotencyKey, currentUser, "order.create", request, OrderResponse.class, () -> {
+            OrderResponse created = orderService.createOrder(request, currentUser);
+            return ResponseEntity
+                    .created(URI.create("/orders/" + created.id()))
+                    .body(created);
+        });
     }
 
+    @GetMapping("/requests/{id}")
+    public OrderRequestResponse getOrderRequest(@PathVariable UUID id, @AuthenticationPrincipal Jwt jwt) {
+        return orderIntakeService.getRequest(id, CurrentUser.from(jwt));
+    }
+
+    /**
+     * Places many orders in one request (marketplace ingest). Always 200: each
+     * order gets its own result, with the status it would have had on its own.
+     */
+    @PostMapping("/batch")
+    public List<OrderBatchResult> createOrders(
+            @Valid @RequestBody CreateOrderBatchRequest request,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        return orderService.createOrders(request.orders(), CurrentUser.from(jwt));
+    }
+
+    /** Conditional on {@code If-None-Match}, like {@code GET /products/{id}}; the tag follows the status. */
     @GetMapping("/{id}")
-    public OrderResponse getOrder(@PathVariable UUID id, @AuthenticationPrincipal Jwt jwt) {
-        return orderService.getOrder(id, CurrentUser.from(jwt));
+    public ResponseEntity<OrderResponse> getOrder(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal Jwt jwt,
+            WebRequest request
+    ) {
+        CurrentUser currentUser = CurrentUser.from(jwt);
+        String eTag = orderService.getOrderVersionTag(id, currentUser);
+        if (request.checkNotModified(eTag)) {
+            // 304 and the ETag header are already set on the response.
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(orderService.getOrder(id, currentUser));
     }
 
+    /**
+     * Orders newest first, one page at a time. The body stays a plain array; when
+     * there are more orders, {@value #NEXT_CURSOR} carries the token for the next
+     * page, passed back as {@code cursor} with the same filters.
+     */
     @GetMapping
-    public List<OrderResponse> listOrders(@RequestParam(required = false) OrderStatus status) {
-        return orderService.listOrders(status);
+    public ResponseEntity<List<OrderResponse>> listOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) Instant from,
+            @RequestParam(required = false) Instant to,
+            @RequestParam(required = false) String customer,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return pageResponse(orderService.listOrders(new OrderFilter(status, from, to, customer, null), cursor, limit));
+    }
+
+    /**
+     * Streams orders created at or after {@code since} (all when omitted), oldest
+     * first, for reporting jobs: {@code format=ndjson} (default, one order with its
+     * items per line) or {@code format=csv} (one line per item). Nothing is
+     * collected in memory. Orders younger than {@code app.order.export.settle-time}
+     * are left for the next pull, since they may still be committing; the bound is
+     * returned in {@value #EXPORT_UNTIL}, and an incremental pull passes it back as
+     * {@code since}. An interrupted pull resumes by passing the createdAt and id of the
+     * last order it saw as {@code since} and {@code after}. Each order is exported
+     * once, with its status at that moment; later status changes are not re-exported.
+     */
+    @GetMapping("/export")
+    public void exportOrders(
+            @RequestParam(required = false) Instant since,
+            @RequestParam(required = false) UUID after,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response
+    ) throws IOException {
+        OrderExportFormat exportFormat = OrderExportFormat.of(format);
+        response.setContentType(exportFormat.contentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8);
+        Instant until = orderExporter.settledBefore();
+        response.setHeader(EXPORT_UNTIL, until.toString());
+        orderExporter.export(since, after, until, exportFormat, response.getOutputStream());
     }
 
+    /** The caller's orders, paged like {@code GET /orders}. */
     @GetMapping("/my")
-    public List<OrderResponse> listMyOrders(@AuthenticationPrincipal Jwt jwt) {
-        return orderService.listMyOrders(CurrentUser.from(jwt));
+    public ResponseEntity<List<OrderResponse>> listMyOrders(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        return pageResponse(orderService.listMyOrders(CurrentUser.from(jwt), status, cursor, limit));
+    }
+
+    /** The caller's orders without their items, for list views; same paging as {@code /orders/my}. */
+    @GetMapping("/my/summary")
+    public ResponseEntity<List<OrderSummaryResponse>> listMyOrderSummaries(
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        return pageResponse(orderService.listMyOrderSummaries(CurrentUser.from(jwt), status, cursor, limit));
+    }
+
+    private static <T> ResponseEntity<List<T>> pageResponse(CursorPage<T> page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR, page.nextCursor());
+        }
+        return response.body(page.items());
     }
 
     @PostMapping("/{id}/pay")
-    public OrderResponse pay(@PathVariable UUID id, @AuthenticationPrincipal Jwt jwt) {
-        return orderService.payOrder(id, CurrentUser.from(jwt));
+    public ResponseEntity<OrderResponse> pay(
+            @PathVariable UUID id,
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        CurrentUser currentUser = CurrentUser.from(jwt);
+        return idempotencyService.execute(idempotencyKey, currentUser, "order.pay", id, OrderResponse.class,
+                () -> ResponseEntity.ok(orderService.payOrder(id, currentUser)));
     }
 
     @PostMapping("/{id}/cancel")
-    public OrderResponse cancel(@PathVariable UUID id, @AuthenticationPrincipal Jwt jwt) {
-        return orderService.cancelOrder(id, CurrentUser.from(jwt));
+    public ResponseEntity<OrderResponse> cancel(
+            @PathVariable UUID id,
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @AuthenticationPrincipal Jwt jwt
+    ) {
+        CurrentUser currentUser = CurrentUser.from(jwt);
+        return idempotencyService.execute(idempotencyKey, currentUser, "order.cancel", id, OrderResponse.class,
+                () -> ResponseEntity.ok(orderService.cancelOrder(id, currentUser)));
     }
 }
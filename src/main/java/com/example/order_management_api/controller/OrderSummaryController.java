@@ -0,0 +1,46 @@
+package com.example.order_management_api.controller;
+
+import com.example.order_management_api.api.OrderStatsResponse;
+import com.example.order_management_api.model.OrderStatus;
+import com.example.order_management_api.projection.OrderSummaryProjector;
+import com.example.order_management_api.projection.OrderSummaryQueries;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/** Order statistics for dashboards, served from the {@code order_summary} projection. */
+@RestController
+@RequestMapping("/admin/order-summary")
+@RequiredArgsConstructor
+public class OrderSummaryController {
+
+    private final OrderSummaryQueries orderSummaryQueries;
+    private final OrderSummaryProjector orderSummaryProjector;
+
+    @GetMapping
+    public List<OrderStatsResponse> daily(
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to,
+            @RequestParam(required = false) OrderStatus status
+    ) {
+        return orderSummaryQueries.daily(from, to, status);
+    }
+
+    @GetMapping("/totals")
+    public List<OrderStatsResponse> totals(
+            @RequestParam(required = false) LocalDate from,
+            @RequestParam(required = false) LocalDate to
+    ) {
+        return orderSummaryQueries.totals(from, to);
+    }
+
+    /** Recomputes the projection from the orders, e.g. after changing how it is built. */
+    @PostMapping("/rebuild")
+    public ResponseEntity<Void> rebuild() {
+        orderSummaryProjector.rebuild();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -9,6 +9,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
 import java.util.List;
@@ -39,9 +40,18 @@ public class ProductController {
         return productService.listProducts(active);
     }
 
+    /**
+     * Conditional on {@code If-None-Match}: the entity tag comes from a version lookup,
+     * so an unchanged product costs one small query and a bodiless 304.
+     */
     @GetMapping("/{id}")
-    public ProductResponse getProduct(@PathVariable UUID id) {
-        return productService.getProduct(id);
+    public ResponseEntity<ProductResponse> getProduct(@PathVariable UUID id, WebRequest request) {
+        String eTag = productService.getVersionTag(id);
+        if (request.checkNotModified(eTag)) {
+            // 304 and the ETag header are already set on the response.
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(productService.getProduct(id, eTag));
     }
 
     @PatchMapping("/{id}")
@@ -0,0 +1,80 @@
+package com.example.order_management_api.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * With {@code app.datasource.replica.url} set, read-only transactions
+ * ({@code @Transactional(readOnly = true)}, Spring Data finders) run on a replica
+ * pool and everything else on the primary pool.
+ * <p>
+ * The application sees one {@link LazyConnectionDataSourceProxy}. It fetches the
+ * physical connection at the first statement, by which time the transaction
+ * manager has marked the connection read-only, and takes read-only connections from
+ * {@link ReadReplicaRoutingDataSource}. Both Hikari pools report
+ * {@code hikaricp.*} metrics tagged {@code pool=primary|replica}.
+ */
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+@Configuration
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(
+            @Value("${spring.datasource.url}") String url,
+            @Value("${spring.datasource.username}") String username,
+            @Value("${spring.datasource.password}") String password,
+            MeterRegistry meterRegistry
+    ) {
+        return pool("primary", url, username, password, meterRegistry);
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(ReadReplicaProperties properties, MeterRegistry meterRegistry) {
+        HikariDataSource replica = pool(
+                "replica", properties.getUrl(), properties.getUsername(), properties.getPassword(), meterRegistry);
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            HikariDataSource primaryDataSource,
+            HikariDataSource replicaDataSource,
+            RecentWriters recentWriters,
+            MeterRegistry meterRegistry
+    ) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(new ReadReplicaRoutingDataSource(
+                primaryDataSource, replicaDataSource, recentWriters, meterRegistry));
+        return dataSource;
+    }
+
+    private static HikariDataSource pool(
+            String name,
+            String url,
+            String username,
+            String password,
+            MeterRegistry meterRegistry
+    ) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl(url);
+        pool.setUsername(username);
+        pool.setPassword(password);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return pool;
+    }
+}
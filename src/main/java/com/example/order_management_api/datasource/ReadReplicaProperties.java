@@ -0,0 +1,28 @@
+package com.example.order_management_api.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.datasource.replica")
+public class ReadReplicaProperties {
+
+    /** JDBC url of the replica; read-only transactions stay on the primary while unset. */
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    /**
+     * How long a user's reads stay on the primary after a write of theirs. Should
+     * exceed the usual replication lag.
+     */
+    private Duration pinWindow = Duration.ofSeconds(5);
+}
@@ -0,0 +1,47 @@
+package com.example.order_management_api.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Target of read-only connections: the replica, or the primary for a caller who
+ * wrote recently. Counts each decision as {@code app.datasource.read-routing}
+ * tagged {@code target=replica|primary}.
+ */
+class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final String PRIMARY = "primary";
+    private static final String REPLICA = "replica";
+
+    private final RecentWriters recentWriters;
+    private final Counter toPrimary;
+    private final Counter toReplica;
+
+    ReadReplicaRoutingDataSource(
+            DataSource primary,
+            DataSource replica,
+            RecentWriters recentWriters,
+            MeterRegistry meterRegistry
+    ) {
+        this.recentWriters = recentWriters;
+        this.toPrimary = meterRegistry.counter("app.datasource.read-routing", "target", PRIMARY);
+        this.toReplica = meterRegistry.counter("app.datasource.read-routing", "target", REPLICA);
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(replica);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (recentWriters.currentUserWroteRecently()) {
+            toPrimary.increment();
+            return PRIMARY;
+        }
+        toReplica.increment();
+        return REPLICA;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.order_management_api.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+/**
+ * Users who wrote within the pin window, by name (the JWT subject). Their reads go
+ * to the primary so they see their own writes despite replication lag. Local to the
+ * node that took the write.
+ */
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+@Component
+public class RecentWriters {
+
+    private final Cache<String, Boolean> writers;
+
+    public RecentWriters(ReadReplicaProperties properties) {
+        this.writers = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getPinWindow())
+                .build();
+    }
+
+    /** Starts (or restarts) the pin window of the authenticated caller; no-op for anonymous calls. */
+    public void recordCurrentUser() {
+        String user = currentUser();
+        if (user != null) {
+            writers.put(user, Boolean.TRUE);
+        }
+    }
+
+    public boolean currentUserWroteRecently() {
+        String user = currentUser();
+        return user != null && writers.getIfPresent(user) != null;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null
+                || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
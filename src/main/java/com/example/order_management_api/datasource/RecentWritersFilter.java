@@ -0,0 +1,47 @@
+package com.example.order_management_api.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Records the caller of every state-changing request in {@link RecentWriters}. As a
+ * plain servlet filter it runs after the security filter chain, so the caller is
+ * authenticated by then.
+ */
+@ConditionalOnProperty(prefix = "app.datasource.replica", name = "url")
+@Component
+@RequiredArgsConstructor
+public class RecentWritersFilter extends OncePerRequestFilter {
+
+    private static final Set<String> SAFE_METHODS = Set.of(
+            HttpMethod.GET.name(), HttpMethod.HEAD.name(), HttpMethod.OPTIONS.name());
+
+    private final RecentWriters recentWriters;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (SAFE_METHODS.contains(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+        // Before: reads later in this request must not hit the replica either.
+        recentWriters.recordCurrentUser();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // After: the window counts from the commit, not from the request start.
+            recentWriters.recordCurrentUser();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.order_management_api.event.model;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.UUID;
+
+public record ProductUpdatedEvent(
+        UUID eventId,
+        Instant occurredAt,
+        UUID productId,
+        String name,
+        BigDecimal price,
+        boolean active
+) implements DomainEvent {
+
+    public static ProductUpdatedEvent now(UUID productId, String name, BigDecimal price, boolean active) {
+        return new ProductUpdatedEvent(UUID.randomUUID(), Instant.now(), productId, name, price, active);
+    }
+
+    @Override
+    public String type() {
+        return "ProductUpdated";
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.order_management_api.exception;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+    public IdempotencyKeyInProgressException(String key) {
+        super("A request with Idempotency-Key " + key + " is still being processed. Please retry later.");
+    }
+}
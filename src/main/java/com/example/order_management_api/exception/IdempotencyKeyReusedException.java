@@ -0,0 +1,7 @@
+package com.example.order_management_api.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException() {
+        super("Idempotency-Key was already used for a different request.");
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.order_management_api.exception;
+
+public class OrderIntakeFullException extends RuntimeException {
+    public OrderIntakeFullException() {
+        super("Too many orders are waiting to be placed. Please retry shortly.");
+    }
+}
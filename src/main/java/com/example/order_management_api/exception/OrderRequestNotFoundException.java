@@ -0,0 +1,10 @@
+package com.example.order_management_api.exception;
+
+import java.util.UUID;
+
+public class OrderRequestNotFoundException extends RuntimeException {
+
+    public OrderRequestNotFoundException(UUID id) {
+        super("Order request " + id + " not found");
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.order_management_api.exception;
+
+public class UnsupportedExportFormatException extends RuntimeException {
+
+    public UnsupportedExportFormatException(String format) {
+        super("Unsupported export format: " + format + " (expected ndjson or csv)");
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.order_management_api.export;
+
+import com.example.order_management_api.exception.UnsupportedExportFormatException;
+
+import java.util.Locale;
+
+public enum OrderExportFormat {
+
+    /** One JSON order, with its items, per line. */
+    NDJSON("application/x-ndjson"),
+
+    /** One line per order item, with a header row. */
+    CSV("text/csv");
+
+    private final String contentType;
+
+    OrderExportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    /** Parses the {@code format} request parameter, case-insensitively. */
+    public static OrderExportFormat of(String format) {
+        try {
+            return valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new UnsupportedExportFormatException(format);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.order_management_api.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Streams orders with their items for reporting jobs. Rows come from a server-side
+ * cursor ({@code app.order.export.fetch-size} at a time, which needs the read-only
+ * transaction around the query) and are written out as they arrive, so memory stays
+ * flat however many orders are exported.
+ * <p>
+ * Orders are selected by when they were created, with the status they have at
+ * export time. {@code created_at} is stamped before the order commits, so a recent
+ * order can still appear behind newer ones that already committed. The export
+ * therefore stops at {@link #settledBefore()}, {@code app.order.export.settle-time}
+ * ago, and an incremental pull resumes from that bound: orders that commit within
+ * the settle time are exported exactly once. Later status changes of an order
+ * already exported are not sent again.
+ */
+@Component
+public class OrderExporter {
+
+    private static final String QUERY = """
+            select o.id, o.customer_email, o.status, o.created_at, o.hold_expires_at,
+                   i.product_id, i.product_name_snapshot, i.quantity, i.unit_price_at_purchase
+              from orders o
+              join order_items i on i.order_id = o.id
+             where (o.created_at, o.id) > (?, ?)
+               and o.created_at < ?
+             order by o.created_at, o.id, i.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final JsonFactory jsonFactory;
+    private final Duration settleTime;
+
+    public OrderExporter(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            ObjectMapper objectMapper,
+            @Value("${app.order.export.fetch-size:1000}") int fetchSize,
+            @Value("${app.order.export.settle-time:30s}") Duration settleTime
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.jsonFactory = objectMapper.getFactory();
+        this.settleTime = settleTime;
+    }
+
+    /** Orders created before this instant have had time to commit; an export stops here. */
+    public Instant settledBefore() {
+        return Instant.now().minus(settleTime);
+    }
+
+    /**
+     * Writes every order after the watermark {@code (since, after)} and created before
+     * {@code until}, oldest first by {@code (createdAt, id)}. Without {@code after} that is
+     * every order created at or after {@code since} (all orders when null as well). The
+     * next pull passes {@code until} as its {@code since}; passing the createdAt and id of
+     * the last order received instead resumes an interrupted pull right after it.
+     * {@code out} is flushed but not closed.
+     */
+    public void export(Instant since, UUID after, Instant until, OrderExportFormat format, OutputStream out) {
+        OffsetDateTime from = (since != null ? since : Instant.EPOCH).atOffset(ZoneOffset.UTC);
+        OffsetDateTime to = until.atOffset(ZoneOffset.UTC);
+        // The smallest uuid: nothing sorts before it, so (since, it) includes all of since.
+        UUID afterId = after != null ? after : new UUID(0, 0);
+
+        transactionTemplate.executeWithoutResult(_ -> {
+            try {
+                RowWriter writer = format == OrderExportFormat.CSV ? new CsvWriter(out) : new NdjsonWriter(out);
+                jdbcTemplate.query(QUERY, rs -> {
+                    try {
+                        writer.row(rs);
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                }, from, afterId, to);
+                writer.finish();
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+
+    private static String instant(ResultSet rs, String column) throws SQLException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        return value != null ? value.toInstant().toString() : null;
+    }
+
+    /** Receives the joined rows in order: all items of an order arrive together. */
+    private interface RowWriter {
+
+        void row(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private final class NdjsonWriter implements RowWriter {
+
+        private final JsonGenerator json;
+        private UUID currentOrder;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            this.json = jsonFactory.createGenerator(out);
+            // Lines are separated explicitly; no separator inside them.
+            this.json.setRootValueSeparator(null);
+            this.json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            UUID orderId = rs.getObject("id", UUID.class);
+            if (!orderId.equals(currentOrder)) {
+                endOrder();
+                currentOrder = orderId;
+                json.writeStartObject();
+                json.writeStringField("id", orderId.toString());
+                json.writeStringField("customerEmail", rs.getString("customer_email"));
+                json.writeStringField("status", rs.getString("status"));
+                json.writeStringField("createdAt", instant(rs, "created_at"));
+                json.writeStringField("holdExpiresAt", instant(rs, "hold_expires_at"));
+                json.writeArrayFieldStart("items");
+            }
+            json.writeStartObject();
+            json.writeStringField("productId", rs.getString("product_id"));
+            json.writeStringField("productName", rs.getString("product_name_snapshot"));
+            json.writeNumberField("quantity", rs.getInt("quantity"));
+            json.writeNumberField("unitPriceAtPurchase", rs.getBigDecimal("unit_price_at_purchase"));
+            json.writeEndObject();
+        }
+
+        private void endOrder() throws IOException {
+            if (currentOrder != null) {
+                json.writeEndArray();
+                json.writeEndObject();
+                json.writeRaw('\n');
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            endOrder();
+            json.flush();
+        }
+    }
+
+    private static final class CsvWriter implements RowWriter {
+
+        private final Writer csv;
+
+        CsvWriter(OutputStream out) throws IOException {
+            this.csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            csv.write("order_id,customer_email,status,created_at,product_id,product_name,quantity,unit_price\n");
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            csv.write(rs.getString("id"));
+            csv.write(',');
+            csv.write(quote(rs.getString("customer_email")));
+            csv.write(',');
+            csv.write(rs.getString("status"));
+            csv.write(',');
+            csv.write(instant(rs, "created_at"));
+            csv.write(',');
+            csv.write(rs.getString("product_id"));
+            csv.write(',');
+            csv.write(quote(rs.getString("product_name_snapshot")));
+            csv.write(',');
+            csv.write(Integer.toString(rs.getInt("quantity")));
+            csv.write(',');
+            csv.write(rs.getBigDecimal("unit_price_at_purchase").toPlainString());
+            csv.write('\n');
+        }
+
+        private static String quote(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public void finish() throws IOException {
+            csv.flush();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.order_management_api.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+
+/** Forgets idempotency keys once they are older than {@code app.idempotency.ttl}. */
+@Component
+@RequiredArgsConstructor
+public class IdempotencyCleanupJob {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyCleanupJob.class);
+
+    private final IdempotencyRecordRepository repository;
+    private final IdempotencyProperties properties;
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-delay-ms:600000}")
+    public void deleteExpired() {
+        int deleted = repository.deleteClaimedBefore(Instant.now().minus(properties.getTtl()));
+        if (deleted > 0) {
+            log.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+}
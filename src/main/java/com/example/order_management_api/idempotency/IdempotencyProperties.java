@@ -0,0 +1,27 @@
+package com.example.order_management_api.idempotency;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+    /** How long a stored response is replayed for a repeated key. */
+    private Duration ttl = Duration.ofHours(24);
+
+    /** Responses kept in the local cache in front of the table. */
+    private int cacheSize = 10_000;
+
+    /**
+     * How long a duplicate waits for the in-flight original, and after which an
+     * unanswered claim is considered abandoned and may be taken over.
+     */
+    private Duration lease = Duration.ofSeconds(30);
+}
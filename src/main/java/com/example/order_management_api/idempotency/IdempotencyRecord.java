@@ -0,0 +1,45 @@
+package com.example.order_management_api.idempotency;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A client's Idempotency-Key, scoped to the user. Without a response it is a claim
+ * held by the request currently executing; afterwards it holds that first response.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class IdempotencyRecord {
+
+    @EmbeddedId
+    private IdempotencyRecordId id;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    /** Identifies the request holding the claim. */
+    private UUID claimToken;
+
+    private Integer responseStatus;
+
+    private String responseLocation;
+
+    @Column(columnDefinition = "text")
+    private String responseBody;
+
+    @Column(nullable = false)
+    private Instant claimedAt;
+
+    private Instant completedAt;
+
+    public boolean isCompleted() {
+        return responseStatus != null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.order_management_api.idempotency;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Embeddable
+public record IdempotencyRecordId(
+        UUID userId,
+        @Column(name = "idempotency_key") String key
+) implements Serializable {
+}
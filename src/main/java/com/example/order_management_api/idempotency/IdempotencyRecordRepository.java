@@ -0,0 +1,82 @@
+package com.example.order_management_api.idempotency;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.UUID;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, IdempotencyRecordId> {
+
+    /**
+     * Claims the key for the calling request, identified by {@code token}. Succeeds
+     * (returns 1) when the key is new, or when an earlier claim without a response is
+     * older than {@code staleBefore} (its request died or overran its lease). Returns 0
+     * when someone else holds or has completed the key.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            insert into idempotency_keys (user_id, idempotency_key, request_hash, claim_token, claimed_at)
+            values (:userId, :key, :requestHash, :token, now())
+            on conflict (user_id, idempotency_key) do update
+               set request_hash = excluded.request_hash,
+                   claim_token = excluded.claim_token,
+                   claimed_at = excluded.claimed_at
+             where idempotency_keys.response_status is null
+               and idempotency_keys.claimed_at < :staleBefore
+            """, nativeQuery = true)
+    int claim(@Param("userId") UUID userId,
+              @Param("key") String key,
+              @Param("requestHash") String requestHash,
+              @Param("token") UUID token,
+              @Param("staleBefore") Instant staleBefore);
+
+    /**
+     * Stores the response of the claim held with {@code token}. Joins the caller's
+     * transaction so the response commits with the work that produced it. Returns 0 if
+     * the key is gone, already completed, or claimed by another request since.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update IdempotencyRecord r
+               set r.responseStatus = :status,
+                   r.responseLocation = :location,
+                   r.responseBody = :body,
+                   r.completedAt = current_timestamp
+             where r.id.userId = :userId
+               and r.id.key = :key
+               and r.claimToken = :token
+               and r.responseStatus is null
+            """)
+    int complete(@Param("userId") UUID userId,
+                 @Param("key") String key,
+                 @Param("token") UUID token,
+                 @Param("status") int status,
+                 @Param("location") String location,
+                 @Param("body") String body);
+
+    /**
+     * Drops a claim whose request failed, so the client can retry with the same key.
+     * Only the claim held with {@code token}: one taken over since is left alone.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            delete from IdempotencyRecord r
+             where r.id.userId = :userId
+               and r.id.key = :key
+               and r.claimToken = :token
+               and r.responseStatus is null
+            """)
+    int release(@Param("userId") UUID userId, @Param("key") String key, @Param("token") UUID token);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.claimedAt < :before")
+    int deleteClaimedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,251 @@
+package com.example.order_management_api.idempotency;
+
+import com.example.order_management_api.exception.IdempotencyKeyInProgressException;
+import com.example.order_management_api.exception.IdempotencyKeyReusedException;
+import com.example.order_management_api.security.CurrentUser;
+import com.example.order_management_api.service.ConflictRetryExecutor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Executes a request at most once per {@code Idempotency-Key} and replays the first
+ * successful response for repeats.
+ * <p>
+ * Three layers, cheapest first: a bounded TTL cache of completed responses; a map of
+ * requests in flight on this node, so concurrent duplicates wait for the original
+ * instead of running it again; and the {@code idempotency_keys} table, which holds the
+ * claim and the stored response across nodes and restarts. Failures are not stored:
+ * the claim is dropped and the client may retry with the same key.
+ * <p>
+ * The response is stored in the action's own transaction, so the action's writes and
+ * the completed key commit together: a crash can lose both, never just the key, and a
+ * retry after the lease expires cannot run the action a second time.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository repository;
+    private final IdempotencyProperties properties;
+    private final ConflictRetryExecutor conflictRetryExecutor;
+    private final ObjectMapper objectMapper;
+    private final Cache<IdempotencyRecordId, StoredResponse> completed;
+    private final ConcurrentHashMap<IdempotencyRecordId, CompletableFuture<StoredResponse>> inFlight =
+            new ConcurrentHashMap<>();
+
+    public IdempotencyService(
+            IdempotencyRecordRepository repository,
+            IdempotencyProperties properties,
+            ConflictRetryExecutor conflictRetryExecutor,
+            ObjectMapper objectMapper
+    ) {
+        this.repository = repository;
+        this.properties = properties;
+        this.conflictRetryExecutor = conflictRetryExecutor;
+        this.objectMapper = objectMapper;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(properties.getCacheSize())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+    }
+
+    /**
+     * Runs {@code action} unless this user already sent {@code key}. {@code operation}
+     * and {@code request} identify the call: reusing a key for a different call is
+     * rejected. Without a key the action simply runs.
+     */
+    public <T> ResponseEntity<T> execute(
+            String key,
+            CurrentUser currentUser,
+            String operation,
+            Object request,
+            Class<T> responseType,
+            Supplier<ResponseEntity<T>> action
+    ) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+
+        IdempotencyRecordId id = new IdempotencyRecordId(currentUser.id(), key);
+        String requestHash = hash(operation, request);
+
+        StoredResponse cached = completed.getIfPresent(id);
+        if (cached != null) {
+            return replay(cached, requestHash, responseType);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(id, mine);
+        if (running != null) {
+            return replay(await(running, key), requestHash, responseType);
+        }
+
+        try {
+            UUID token = UUID.randomUUID();
+            Optional<StoredResponse> previous = claim(id, requestHash, token);
+            if (previous.isPresent()) {
+                completed.put(id, previous.get());
+                mine.complete(previous.get());
+                return replay(previous.get(), requestHash, responseType);
+            }
+
+            // Retries on conflict re-run the action and the completion together.
+            Completed<T> done;
+            try {
+                done = conflictRetryExecutor.inTransaction(operation, () -> {
+                    ResponseEntity<T> response = action.get();
+                    return new Completed<>(response, store(id, token, requestHash, response));
+                });
+            } catch (RuntimeException ex) {
+                repository.release(id.userId(), id.key(), token);
+                throw ex;
+            }
+
+            completed.put(id, done.stored());
+            mine.complete(done.stored());
+            return done.response();
+        } catch (RuntimeException ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+
+    /**
+     * Claims the key in the table under {@code token}, which the later release or
+     * completion must present. Returns the stored response if the key was answered
+     * before (e.g. on another node, or evicted from the cache), and fails if another
+     * node is executing it right now.
+     */
+    private Optional<StoredResponse> claim(IdempotencyRecordId id, String requestHash, UUID token) {
+        Instant staleBefore = Instant.now().minus(properties.getLease());
+        if (repository.claim(id.userId(), id.key(), requestHash, token, staleBefore) == 1) {
+            return Optional.empty();
+        }
+        IdempotencyRecord existing = repository.findById(id)
+                .filter(IdempotencyRecord::isCompleted)
+                .orElseThrow(() -> new IdempotencyKeyInProgressException(id.key()));
+        return Optional.of(StoredResponse.of(existing));
+    }
+
+    /**
+     * Writes the response into the claim. Runs in the action's transaction; fails (and
+     * so rolls the action back) if the claim is no longer ours: taken over or completed
+     * by someone else, which happens only when this request outlived its lease.
+     */
+    private StoredResponse store(IdempotencyRecordId id, UUID token, String requestHash, ResponseEntity<?> response) {
+        StoredResponse stored = new StoredResponse(
+                requestHash,
+                response.getStatusCode().value(),
+                Optional.ofNullable(response.getHeaders().getLocation()).map(URI::toString).orElse(null),
+                toJson(response.getBody())
+        );
+        if (repository.complete(id.userId(), id.key(), token, stored.status(), stored.location(), stored.body()) != 1) {
+            throw new IdempotencyKeyInProgressException(id.key());
+        }
+        return stored;
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running, String key) {
+        try {
+            return running.get(properties.getLease().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            // The original failed; a duplicate sees the same outcome.
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new IdempotencyKeyInProgressException(key);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyKeyInProgressException(key);
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException();
+        }
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(stored.status())
+                .header(REPLAYED_HEADER, "true");
+        if (stored.location() != null) {
+            builder.location(URI.create(stored.location()));
+        }
+        return builder.body(fromJson(stored.body(), responseType));
+    }
+
+    private String hash(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot fingerprint request for " + operation, ex);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize idempotent response", ex);
+        }
+    }
+
+    private <T> T fromJson(String body, Class<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to read stored idempotent response", ex);
+        }
+    }
+
+    private record Completed<T>(ResponseEntity<T> response, StoredResponse stored) {
+    }
+
+    private record StoredResponse(String requestHash, int status, String location, String body) {
+
+        static StoredResponse of(IdempotencyRecord record) {
+            return new StoredResponse(
+                    record.getRequestHash(),
+                    record.getResponseStatus(),
+                    record.getResponseLocation(),
+                    record.getResponseBody()
+            );
+        }
+    }
+}
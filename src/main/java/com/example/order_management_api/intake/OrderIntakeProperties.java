@@ -0,0 +1,35 @@
+package com.example.order_management_api.intake;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.order.async")
+public class OrderIntakeProperties {
+
+    /** Whether {@code Prefer: respond-async} is honoured and workers run. */
+    private boolean enabled = true;
+
+    /** Pending requests accepted before POST /orders answers 503. */
+    private int capacity = 10_000;
+
+    private int workers = 4;
+
+    /** Requests each worker places per transaction. */
+    private int batchSize = 50;
+
+    /** Times a request may fail on its own before it is failed for good. */
+    private int maxAttempts = 5;
+
+    /** Pause of an idle worker before it looks for requests again. */
+    private Duration pollDelay = Duration.ofMillis(100);
+
+    /** How long settled requests stay queryable. */
+    private Duration retention = Duration.ofDays(7);
+}
@@ -0,0 +1,84 @@
+package com.example.order_management_api.intake;
+
+import com.example.order_management_api.api.CreateOrderRequest;
+import com.example.order_management_api.api.OrderRequestResponse;
+import com.example.order_management_api.api.OrderResponse;
+import com.example.order_management_api.exception.OrderAccessDeniedException;
+import com.example.order_management_api.exception.OrderIntakeFullException;
+import com.example.order_management_api.exception.OrderRequestNotFoundException;
+import com.example.order_management_api.mapper.OrderMapper;
+import com.example.order_management_api.repository.OrderRepository;
+import com.example.order_management_api.security.CurrentUser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Front door of the asynchronous order mode: accepting a request is one bounded
+ * insert; {@link OrderIntakeWorker} places it later.
+ */
+@Service
+@RequiredArgsConstructor
+public class OrderIntakeService {
+
+    private final OrderRequestRepository orderRequestRepository;
+    private final OrderRepository orderRepository;
+    private final OrderMapper orderMapper;
+    private final OrderIntakeProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @Transactional
+    public OrderRequestResponse enqueue(CreateOrderRequest request, CurrentUser currentUser) {
+        // Checked before the insert, so concurrent callers may overshoot by a few rows.
+        if (orderRequestRepository.countPendingUpTo(properties.getCapacity()) >= properties.getCapacity()) {
+            throw new OrderIntakeFullException();
+        }
+
+        OrderRequest saved = orderRequestRepository.save(OrderRequest.pending(currentUser.id(), toJson(request)));
+        return toResponse(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public OrderRequestResponse getRequest(UUID id, CurrentUser currentUser) {
+        OrderRequest request = orderRequestRepository.findById(id)
+                .orElseThrow(() -> new OrderRequestNotFoundException(id));
+
+        if (!currentUser.isAdmin() && !request.isOwnedBy(currentUser.id())) {
+            throw new OrderAccessDeniedException(id);
+        }
+
+        return toResponse(request);
+    }
+
+    private OrderRequestResponse toResponse(OrderRequest request) {
+        OrderResponse order = request.getOrderId() == null
+                ? null
+                : orderRepository.findById(request.getOrderId()).map(orderMapper::toResponse).orElse(null);
+
+        return new OrderRequestResponse(
+                request.getId(),
+                request.getStatus(),
+                order,
+                request.getErrorStatus(),
+                request.getErrorMessage(),
+                request.getCreatedAt(),
+                request.getCompletedAt()
+        );
+    }
+
+    private String toJson(CreateOrderRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Failed to serialize order request", ex);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.order_management_api.intake;
+
+import com.example.order_management_api.api.CreateOrderRequest;
+import com.example.order_management_api.api.OrderBatchResult;
+import com.example.order_management_api.model.User;
+import com.example.order_management_api.repository.UserRepository;
+import com.example.order_management_api.security.CurrentUser;
+import com.example.order_management_api.service.ConflictRetryExecutor;
+import com.example.order_management_api.service.OrderService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Pool of workers draining {@code order_requests}. Each worker takes a batch of
+ * pending rows with {@code FOR UPDATE SKIP LOCKED}, places them through
+ * {@link OrderService#createOrders} and settles the rows in the same transaction:
+ * a crash rolls both back and the rows are simply picked up again.
+ * <p>
+ * A batch that fails as a whole (a database error, conflicts past the retry limit)
+ * is retried one request at a time, and only a request that fails on its own has an
+ * attempt counted against it, in a separate transaction. Requests that reach
+ * {@code app.order.async.max-attempts} are failed, so a request that can never be
+ * placed stops blocking the ones behind it without failing its batch-mates.
+ */
+@ConditionalOnProperty(
+        name = "app.order.async.enabled",
+        havingValue = "true",
+        matchIfMissing = true
+)
+@Component
+@RequiredArgsConstructor
+public class OrderIntakeWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderIntakeWorker.class);
+
+    private final OrderRequestRepository orderRequestRepository;
+    private final UserRepository userRepository;
+    private final OrderService orderService;
+    private final ConflictRetryExecutor conflictRetryExecutor;
+    private final OrderIntakeProperties properties;
+    private final ObjectMapper objectMapper;
+
+    private volatile boolean running;
+    private ExecutorService workers;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        workers = Executors.newFixedThreadPool(properties.getWorkers(), Thread.ofPlatform().name("order-intake-", 0).factory());
+        for (int i = 0; i < properties.getWorkers(); i++) {
+            workers.submit(this::run);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (workers != null) {
+            workers.shutdownNow();
+            workers.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            int placed;
+            try {
+                placed = drainBatch();
+            } catch (RuntimeException ex) {
+                // The batch rolled back; its rows are still pending and will be retried
+                // until they run out of attempts.
+                log.warn("Order intake batch failed", ex);
+                placed = 0;
+            }
+            if (placed == 0) {
+                try {
+                    Thread.sleep(properties.getPollDelay());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Places one batch of pending requests; returns how many were taken. If the batch
+     * fails as a whole, its requests are placed again one at a time so a single bad
+     * request cannot take the others down with it.
+     */
+    public int drainBatch() {
+        List<UUID> claimedIds = new ArrayList<>();
+        try {
+            return conflictRetryExecutor.inTransaction("order.intake", () -> {
+                claimedIds.clear();
+                List<OrderRequest> claimed = orderRequestRepository.claimPending(properties.getBatchSize());
+                claimed.forEach(request -> claimedIds.add(request.getId()));
+                placeClaimed(claimed);
+                return claimed.size();
+            });
+        } catch (RuntimeException ex) {
+            if (claimedIds.size() <= 1) {
+                claimedIds.forEach(this::recordFailedAttempt);
+                throw ex;
+            }
+            log.warn("Order intake batch of {} failed, placing its requests one at a time", claimedIds.size(), ex);
+            claimedIds.forEach(this::placeAlone);
+            return claimedIds.size();
+        }
+    }
+
+    /** Places a request of a failed batch in its own transaction, counting an attempt only if it fails again. */
+    private void placeAlone(UUID id) {
+        try {
+            conflictRetryExecutor.inTransaction("order.intake", () -> {
+                placeClaimed(orderRequestRepository.lockPending(List.of(id)));
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Order request {} failed on its own", id, ex);
+            recordFailedAttempt(id);
+        }
+    }
+
+    private void placeClaimed(List<OrderRequest> claimed) {
+        Map<UUID, List<OrderRequest>> byUser = new LinkedHashMap<>();
+        for (OrderRequest request : claimed) {
+            if (outOfAttempts(request)) {
+                giveUp(request);
+            } else {
+                byUser.computeIfAbsent(request.getUserId(), _ -> new ArrayList<>()).add(request);
+            }
+        }
+        if (byUser.isEmpty()) return;
+
+        Map<UUID, User> users = userRepository.findAllById(byUser.keySet()).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        byUser.forEach((userId, requests) -> place(users.get(userId), requests));
+    }
+
+    /**
+     * Counts a failure against the request in its own transaction: the failed
+     * attempt's writes rolled back. A request with no attempts left is failed.
+     */
+    private void recordFailedAttempt(UUID id) {
+        conflictRetryExecutor.inTransaction("order.intake", () -> {
+            for (OrderRequest request : orderRequestRepository.lockPending(List.of(id))) {
+                request.attempt();
+                if (outOfAttempts(request)) {
+                    giveUp(request);
+                }
+            }
+            return null;
+        });
+    }
+
+    /** The one give-up rule: {@code attempts} counts persisted failures only. */
+    private boolean outOfAttempts(OrderRequest request) {
+        return request.getAttempts() >= properties.getMaxAttempts();
+    }
+
+    private void giveUp(OrderRequest request) {
+        log.warn("Giving up on order request {} after {} attempts", request.getId(), request.getAttempts());
+        request.fail(500, "Order could not be placed after " + request.getAttempts() + " attempts");
+    }
+
+    private void place(User user, List<OrderRequest> requests) {
+        if (user == null) {
+            requests.forEach(request -> request.fail(404, "User not found"));
+            return;
+        }
+
+        List<OrderRequest> parsed = new ArrayList<>();
+        List<CreateOrderRequest> payloads = new ArrayList<>();
+        for (OrderRequest request : requests) {
+            try {
+                payloads.add(objectMapper.readValue(request.getPayload(), CreateOrderRequest.class));
+                parsed.add(request);
+            } catch (JsonProcessingException ex) {
+                request.fail(400, "Unreadable order request");
+            }
+        }
+        if (parsed.isEmpty()) return;
+
+        CurrentUser currentUser = new CurrentUser(user.getId(), user.getEmail(), user.getRole());
+        List<OrderBatchResult> results = orderService.createOrders(payloads, currentUser);
+
+        for (int i = 0; i < parsed.size(); i++) {
+            OrderBatchResult result = results.get(i);
+            if (result.order() != null) {
+                parsed.get(i).complete(result.order().id());
+            } else {
+                parsed.get(i).fail(result.status(), result.error());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.order.async.cleanup-delay-ms:3600000}")
+    public void deleteSettled() {
+        int deleted = orderRequestRepository.deleteCompletedBefore(Instant.now().minus(properties.getRetention()));
+        if (deleted > 0) {
+            log.info("Deleted {} settled order requests", deleted);
+        }
+    }
+}
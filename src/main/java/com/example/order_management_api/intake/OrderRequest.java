@@ -0,0 +1,82 @@
+package com.example.order_management_api.intake;
+
+import com.example.order_management_api.model.UuidV7;
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * An order accepted for asynchronous placement. It stays {@code PENDING} until a
+ * worker places it, then records the order id or why it could not be placed.
+ */
+@Entity
+@Table(name = "order_requests")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class OrderRequest {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private UUID userId;
+
+    /** The CreateOrderRequest as JSON. */
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderRequestStatus status;
+
+    private UUID orderId;
+
+    private Integer errorStatus;
+
+    @Column(columnDefinition = "text")
+    private String errorMessage;
+
+    /** Times the request failed to be placed on its own. */
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    private Instant completedAt;
+
+    public static OrderRequest pending(UUID userId, String payload) {
+        OrderRequest request = new OrderRequest();
+        request.id = UuidV7.randomUuid();
+        request.userId = userId;
+        request.payload = payload;
+        request.status = OrderRequestStatus.PENDING;
+        request.createdAt = Instant.now();
+        return request;
+    }
+
+    public boolean isOwnedBy(UUID userId) {
+        return this.userId.equals(userId);
+    }
+
+    public void attempt() {
+        this.attempts++;
+    }
+
+    public void complete(UUID orderId) {
+        this.status = OrderRequestStatus.COMPLETED;
+        this.orderId = orderId;
+        this.completedAt = Instant.now();
+    }
+
+    public void fail(int errorStatus, String errorMessage) {
+        this.status = OrderRequestStatus.FAILED;
+        this.errorStatus = errorStatus;
+        this.errorMessage = errorMessage;
+        this.completedAt = Instant.now();
+    }
+}
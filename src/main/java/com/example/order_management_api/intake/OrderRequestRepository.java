@@ -0,0 +1,54 @@
+package com.example.order_management_api.intake;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface OrderRequestRepository extends JpaRepository<OrderRequest, UUID> {
+
+    /**
+     * Oldest pending requests, row-locked until the caller's transaction ends.
+     * Rows locked by another worker are skipped, so workers never wait on each other.
+     */
+    @Query(value = """
+            select *
+              from order_requests
+             where status = 'PENDING'
+             order by created_at
+             limit :limit
+               for update skip locked
+            """, nativeQuery = true)
+    List<OrderRequest> claimPending(@Param("limit") int limit);
+
+    /**
+     * The given requests that are still pending, row-locked. Rows another worker is
+     * placing right now are skipped.
+     */
+    @Query(value = """
+            select *
+              from order_requests
+             where id in (:ids)
+               and status = 'PENDING'
+               for update skip locked
+            """, nativeQuery = true)
+    List<OrderRequest> lockPending(@Param("ids") Collection<UUID> ids);
+
+    /** Pending requests, counted only up to {@code cap} so a full queue stays cheap to check. */
+    @Query(value = """
+            select count(*)
+              from (select 1 from order_requests where status = 'PENDING' limit :cap) p
+            """, nativeQuery = true)
+    int countPendingUpTo(@Param("cap") int cap);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OrderRequest r where r.completedAt < :before")
+    int deleteCompletedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,7 @@
+package com.example.order_management_api.intake;
+
+public enum OrderRequestStatus {
+    PENDING,
+    COMPLETED,
+    FAILED
+}
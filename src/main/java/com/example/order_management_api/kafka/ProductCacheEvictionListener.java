@@ -0,0 +1,43 @@
+package com.example.order_management_api.kafka;
+
+import com.example.order_management_api.service.ProductCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Drops products from this node's catalog cache when another node changes them.
+ * Every node needs every event, so each start subscribes in a group of its own. The
+ * group commits nothing, which lets the broker delete it as soon as the node leaves,
+ * and with no committed offset it starts at the latest one: older events predate
+ * anything this node has cached. Being a subscription, it follows partitions added to
+ * the topic later.
+ */
+@ConditionalOnProperty(
+        name = "app.kafka.consumer.enabled",
+        havingValue = "true",
+        matchIfMissing = true
+)
+@Component
+@RequiredArgsConstructor
+public class ProductCacheEvictionListener {
+
+    private final ProductCache productCache;
+
+    /** The record key is the product id. */
+    @KafkaListener(
+            topics = "${app.kafka.topics.product}",
+            groupId = "product-cache-${random.uuid}",
+            containerFactory = "uncommittedListenerContainerFactory",
+            properties = {"auto.offset.reset=latest", "enable.auto.commit=false"}
+    )
+    public void evictCachedProduct(@Header(KafkaHeaders.RECEIVED_KEY) String productId) {
+        productCache.evict(List.of(UUID.fromString(productId)));
+    }
+}
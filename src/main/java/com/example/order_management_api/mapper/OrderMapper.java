@@ -25,7 +25,8 @@ public class OrderMapper {
                 order.getCustomerEmail(),
                 order.getStatus(),
                 items,
-                order.getCreatedAt()
+                order.getCreatedAt(),
+                order.getHoldExpiresAt()
         );
     }
 }
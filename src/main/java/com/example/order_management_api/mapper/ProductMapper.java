@@ -14,8 +14,8 @@ public class ProductMapper {
                 product.getName(),
                 product.getPrice(),
                 product.isActive(),
-                inventory.getAvailable(),
-                inventory.getReserved(),
+                inventory.getTotalAvailable(),
+                inventory.getTotalReserved(),
                 product.getCreatedAt()
         );
     }
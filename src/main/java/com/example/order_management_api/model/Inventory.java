@@ -3,6 +3,7 @@ package com.example.order_management_api.model;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Formula;
 
 import java.util.UUID;
 
@@ -16,22 +17,39 @@ import java.util.UUID;
 public class Inventory {
 
     @Id
-    @GeneratedValue
+    @UuidV7Generated
     private UUID id;
 
     @OneToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false)
     private Product product;
 
+    /** Stock held on this row; always 0 for a striped product (see {@link #stripeCount}). */
     @Column(nullable = false)
     private int available;
 
+    /** Number of {@link InventoryStripe} rows holding the stock; 1 means not striped. */
+    @Column(nullable = false)
+    private int stripeCount = 1;
+
+    /** Sum of the stripes as of loading; kept current by InventoryService when it rebalances. */
+    @Formula("(select coalesce(sum(s.available), 0) from inventory_stripes s where s.product_id = product_id)")
+    private int stripedAvailable;
+
+    /** Stock held by unpaid orders; always 0 for a striped product, like {@link #available}. */
     @Column(nullable = false)
     private int reserved;
 
+    @Formula("(select coalesce(sum(s.reserved), 0) from inventory_stripes s where s.product_id = product_id)")
+    private int stripedReserved;
+
     @Version
     private Long version;
 
+    /** Live count from the in-memory reservation mode; the columns lag behind it until write-behind. */
+    @Transient
+    private Integer liveAvailable;
+
     protected Inventory() {
         // JPA
     }
@@ -41,4 +59,21 @@ public class Inventory {
         this.available = available;
         this.reserved = reserved;
     }
+
+    public boolean isStriped() {
+        return stripeCount > 1;
+    }
+
+    /** The logical stock of the product, whether or not it is striped. */
+    public int getTotalAvailable() {
+        if (liveAvailable != null) {
+            return liveAvailable;
+        }
+        return isStriped() ? stripedAvailable : available;
+    }
+
+    /** Stock held by unpaid orders, whether or not the product is striped. */
+    public int getTotalReserved() {
+        return isStriped() ? stripedReserved : reserved;
+    }
 }
@@ -0,0 +1,44 @@
+package com.example.order_management_api.model;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * A stock change not yet folded into {@link Inventory}; see the in-memory reservation mode.
+ */
+@Entity
+@Table(name = "inventory_journal")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class InventoryJournalEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_journal_seq")
+    @SequenceGenerator(name = "inventory_journal_seq", sequenceName = "inventory_journal_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private UUID productId;
+
+    @Column(nullable = false)
+    private int delta;
+
+    @Column(nullable = false)
+    private int reservedDelta;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    public InventoryJournalEntry(UUID productId, int delta, int reservedDelta) {
+        this.productId = productId;
+        this.delta = delta;
+        this.reservedDelta = reservedDelta;
+    }
+}
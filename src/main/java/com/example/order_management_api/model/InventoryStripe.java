@@ -0,0 +1,39 @@
+package com.example.order_management_api.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.UUID;
+
+/**
+ * One slice of a striped product's stock. Stripes are numbered 0..stripeCount-1.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "inventory_stripes")
+public class InventoryStripe {
+
+    @EmbeddedId
+    private InventoryStripeId id;
+
+    @Column(nullable = false)
+    private int available;
+
+    /** Stock taken from this stripe by orders that are not paid yet. */
+    @Column(nullable = false)
+    private int reserved;
+
+    @Version
+    private Long version;
+
+    protected InventoryStripe() {
+        // JPA
+    }
+
+    public InventoryStripe(UUID productId, int stripe, int available) {
+        this.id = new InventoryStripeId(productId, stripe);
+        this.available = available;
+    }
+}
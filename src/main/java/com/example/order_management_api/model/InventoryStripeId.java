@@ -0,0 +1,10 @@
+package com.example.order_management_api.model;
+
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Embeddable
+public record InventoryStripeId(UUID productId, int stripe) implements Serializable {
+}
@@ -29,6 +29,9 @@ public class Order {
 
     private Instant createdAt;
 
+    /** Until when the order's stock is held; null once the order is paid or cancelled. */
+    private Instant holdExpiresAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
@@ -44,7 +47,7 @@ public class Order {
     }
 
     public static Order newOrder(User user) {
-        Order order = new Order(UUID.randomUUID(), user.getEmail(), OrderStatus.CREATED, Instant.now());
+        Order order = new Order(UuidV7.randomUuid(), user.getEmail(), OrderStatus.CREATED, Instant.now());
         order.user = user;
         return order;
     }
@@ -58,12 +61,19 @@ public class Order {
         item.setOrder(this);
     }
 
+    /** Holds the order's stock until {@code expiresAt}; an order still unpaid by then is cancelled. */
+    public void holdStockUntil(Instant expiresAt) {
+        this.holdExpiresAt = expiresAt;
+    }
+
     public void pay() {
         transitionTo(OrderStatus.PAID);
+        this.holdExpiresAt = null;
     }
 
     public void cancel() {
         transitionTo(OrderStatus.CANCELLED);
+        this.holdExpiresAt = null;
     }
 
     private void transitionTo(OrderStatus target) {
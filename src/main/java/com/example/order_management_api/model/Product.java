@@ -17,7 +17,7 @@ import java.util.UUID;
 public class Product {
 
     @Id
-    @GeneratedValue
+    @UuidV7Generated
     private UUID id;
 
     @Column(nullable = false)
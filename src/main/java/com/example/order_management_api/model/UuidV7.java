@@ -0,0 +1,38 @@
+package com.example.order_management_api.model;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * Time-ordered UUIDs (RFC 9562, version 7): 48 bits of Unix milliseconds followed by
+ * random bits. Keys created close together sort close together, so inserts append
+ * to the right edge of the primary-key B-tree instead of touching random pages.
+ */
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private UuidV7() {
+    }
+
+    public static UUID randomUuid() {
+        return fromMillis(System.currentTimeMillis());
+    }
+
+    static UUID fromMillis(long epochMillis) {
+        byte[] random = new byte[10];
+        RANDOM.nextBytes(random);
+
+        long msb = (epochMillis & 0xFFFF_FFFF_FFFFL) << 16
+                | 0x7000L                                   // version 7
+                | ((random[0] & 0x0FL) << 8) | (random[1] & 0xFFL);
+
+        long lsb = 0;
+        for (int i = 2; i < 10; i++) {
+            lsb = (lsb << 8) | (random[i] & 0xFFL);
+        }
+        lsb = (lsb & 0x3FFF_FFFF_FFFF_FFFFL) | 0x8000_0000_0000_0000L; // IETF variant
+
+        return new UUID(msb, lsb);
+    }
+}
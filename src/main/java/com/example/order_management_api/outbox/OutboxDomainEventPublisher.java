@@ -45,6 +45,7 @@ public class OutboxDomainEventPublisher implements DomainEventPublisher {
             return "ORDER";
         }
         if (event instanceof ProductCreatedEvent
+                || event instanceof ProductUpdatedEvent
                 || event instanceof StockAdjustedEvent) {
             return "PRODUCT";
         }
@@ -58,6 +59,7 @@ public class OutboxDomainEventPublisher implements DomainEventPublisher {
         if (event instanceof OrderCancelledEvent e) return e.orderId();
 
         if (event instanceof ProductCreatedEvent e) return e.productId();
+        if (event instanceof ProductUpdatedEvent e) return e.productId();
         if (event instanceof StockAdjustedEvent e) return e.productId();
 
         throw new IllegalArgumentException("Unsupported event type: " + event.getClass().getName());
@@ -1,17 +1,21 @@
 package com.example.order_management_api.outbox;
 
+import com.example.order_management_api.model.UuidV7Generated;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
 import java.util.UUID;
 
 @Entity
+// Partitioned by day of occurredAt, with (id, occurredAt) as the primary key in the
+// database; see V17 and OutboxPartitionMaintenance. id alone stays unique (UUIDv7).
 @Table(
         name = "outbox_events",
         indexes = {
-                @Index(name = "idx_outbox_published_at", columnList = "publishedAt"),
                 @Index(name = "idx_outbox_occurred_at", columnList = "occurredAt")
         }
 )
@@ -22,7 +26,7 @@ import java.util.UUID;
 public class OutboxEvent {
 
     @Id
-    @GeneratedValue
+    @UuidV7Generated
     private UUID id;
 
     @Column(nullable = false)
@@ -34,7 +38,8 @@ public class OutboxEvent {
     @Column(nullable = false)
     private String type; // e.g. OrderCreated, StockAdjusted
 
-    @Lob
+    /** Stored inline as jsonb; Postgres normalizes it, so it comes back without the original whitespace. */
+    @JdbcTypeCode(SqlTypes.JSON)
     @Column(nullable = false)
     private String payloadJson;
 
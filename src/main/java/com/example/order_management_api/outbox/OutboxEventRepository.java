@@ -3,10 +3,100 @@ package com.example.order_management_api.outbox;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
 
     Page<OutboxEvent> findByPublishedAtIsNullOrderByOccurredAtAsc(Pageable pageable);
+
+    /**
+     * Row-locks up to {@code limit} unpublished events of one lane, oldest first,
+     * skipping rows another publisher has locked. An aggregate always hashes to the
+     * same one of {@code lanes} lanes. Concurrent publishers therefore claim disjoint
+     * batches instead of waiting on (or re-sending) each other's rows. The locks are
+     * held until the calling transaction ends. Partitions before {@code hotFrom} are
+     * pruned from the scan. Events of {@code skippedAggregates} (aggregates backing off
+     * after a failed send) are left alone; the collection must not be empty. Dead
+     * letters are never claimed.
+     */
+    @Query(value = """
+            select * from outbox_events
+             where published_at is null
+               and dead_lettered_at is null
+               and occurred_at >= :hotFrom
+               and (hashtext(aggregate_id::text) & 2147483647) % :lanes = :lane
+               and aggregate_id not in (:skippedAggregates)
+             order by occurred_at, id
+             limit :limit
+               for update skip locked
+            """, nativeQuery = true)
+    List<OutboxEvent> claimUnpublished(
+            @Param("hotFrom") Instant hotFrom,
+            @Param("lanes") int lanes,
+            @Param("lane") int lane,
+            @Param("limit") int limit,
+            @Param("skippedAggregates") Collection<UUID> skippedAggregates
+    );
+
+    /**
+     * The ids among {@code claimedIds} that have an earlier unpublished event of the
+     * same aggregate outside the claim: one locked by another publisher, or left
+     * behind by an aborted one. Sending them now would overtake that event.
+     */
+    @Query(value = """
+            select c.id from outbox_events c
+             where c.id in (:claimedIds)
+               and c.occurred_at >= :hotFrom
+               and exists (select 1 from outbox_events e
+                            where e.aggregate_id = c.aggregate_id
+                              and e.published_at is null
+                              and e.dead_lettered_at is null
+                              and e.occurred_at >= :hotFrom
+                              and (e.occurred_at, e.id) < (c.occurred_at, c.id)
+                              and e.id not in (:claimedIds))
+            """, nativeQuery = true)
+    Set<UUID> findOvertaking(@Param("claimedIds") Collection<UUID> claimedIds, @Param("hotFrom") Instant hotFrom);
+
+    /**
+     * Marks sent events published. {@code from} and {@code to} bound their occurredAt,
+     * so the update only visits the partitions that can hold them.
+     */
+    @Modifying
+    @Query(value = """
+            update outbox_events set published_at = :publishedAt
+             where id in (:ids)
+               and occurred_at between :from and :to
+            """, nativeQuery = true)
+    int markPublished(
+            @Param("ids") Collection<UUID> ids,
+            @Param("from") Instant from,
+            @Param("to") Instant to,
+            @Param("publishedAt") Instant publishedAt
+    );
+
+    /**
+     * Counts a failed send against the event and dead-letters it once it has failed
+     * {@code maxFailures} times. Returns whether this failure dead-lettered it.
+     */
+    @Query(value = """
+            update outbox_events
+               set send_failures = send_failures + 1,
+                   dead_lettered_at = case when send_failures + 1 >= :maxFailures then now() end
+             where id = :id
+               and occurred_at = :occurredAt
+            returning dead_lettered_at is not null
+            """, nativeQuery = true)
+    Boolean recordSendFailure(
+            @Param("id") UUID id,
+            @Param("occurredAt") Instant occurredAt,
+            @Param("maxFailures") int maxFailures
+    );
 }
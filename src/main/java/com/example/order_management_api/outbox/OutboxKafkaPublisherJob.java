@@ -1,22 +1,69 @@
 package com.example.order_management_api.outbox;
 
-import jakarta.transaction.Transactional;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Sends unsent outbox events to Kafka. Aggregate ids are hashed into
+ * {@code app.outbox.publisher.lanes} lanes, each drained by its own virtual thread:
+ * an aggregate's events stay in one lane and in order, while unrelated aggregates
+ * flow in parallel. Per lane, {@code app.outbox.lag} is the age of the oldest event
+ * it last claimed and {@code app.outbox.published} counts what it published.
+ * <p>
+ * A batch fires all its sends before waiting on any of them, so it costs about one
+ * broker round trip instead of one per event. Sends are issued in occurredAt order
+ * and keyed by aggregate id, so the events of one aggregate reach their partition in order.
+ * <p>
+ * Any number of instances can run it: each batch is claimed with
+ * {@code FOR UPDATE SKIP LOCKED} and holds its row locks until it commits, so
+ * instances publish disjoint batches. An aggregate whose earlier event is claimed
+ * elsewhere is left out of the batch, and is picked up once that event is published.
+ * Claims only scan the partitions from {@link OutboxPartitionMaintenance#hotFrom} on.
+ * <p>
+ * Only acknowledged events are marked published. Once an event of an aggregate fails,
+ * its later events in the batch stay unpublished too, even if the broker took them:
+ * the next batch sends them again after it, so consumers may see duplicates but never
+ * end on an older event. The failed aggregate then backs off: claims on this instance
+ * leave it out for {@code app.outbox.publisher.retry-backoff}, doubling with each
+ * further failure, so an event that cannot be sent neither spins its lane nor takes
+ * batch slots from the others. After {@code max-send-failures} failed sends the event is
+ * dead-lettered ({@code dead_lettered_at}, counted in {@code app.outbox.dead-lettered}):
+ * it is no longer retried, and its aggregate's later events go out without it.
+ * A lane that published nothing pauses for {@code poll-delay}.
+ */
 @ConditionalOnProperty(
         name = "app.outbox.publisher.enabled",
         havingValue = "true",
         matchIfMissing = true
 )
+@Slf4j
 @Component
 @RequiredArgsConstructor
 public class OutboxKafkaPublisherJob {
@@ -24,40 +71,183 @@ public class OutboxKafkaPublisherJob {
     private final OutboxEventRepository outboxEventRepository;
     private final KafkaTemplate<String, String> kafkaTemplate;
     private final OutboxKafkaProperties topics;
+    private final OutboxPublisherProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final OutboxPartitionMaintenance partitions;
 
-    private boolean enabled;
+    private final Map<Integer, AtomicLong> lagMillis = new ConcurrentHashMap<>();
+    private final Map<UUID, Backoff> backoffs = new ConcurrentHashMap<>();
 
-    @Value("${app.outbox.publisher.batch-size:50}")
-    private int batchSize;
+    private volatile boolean running;
+    private ExecutorService lanes;
 
-    // @Transactional must sit on the method invoked through the Spring proxy;
-    // a self-invoked internal method would silently run without a transaction.
-    @Scheduled(fixedDelayString = "${app.outbox.publisher.fixed-delay-ms:1000}")
-    @Transactional
-    public void publishUnsentEvents() {
-        var page = outboxEventRepository
-                .findByPublishedAtIsNullOrderByOccurredAtAsc(PageRequest.of(0, batchSize));
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        lanes = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("outbox-lane-", 0).factory());
+        for (int lane = 0; lane < properties.getLanes(); lane++) {
+            int current = lane;
+            lanes.submit(() -> run(current));
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (lanes != null) {
+            lanes.shutdownNow();
+            lanes.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    private void run(int lane) {
+        while (running) {
+            int published;
+            try {
+                published = publishBatch(lane);
+            } catch (RuntimeException ex) {
+                // The batch rolled back; its events are still unpublished and will be retried.
+                log.warn("Outbox lane {} failed", lane, ex);
+                published = 0;
+            }
+            // Also when events were claimed but none went out (held back or failed).
+            if (published == 0) {
+                try {
+                    Thread.sleep(properties.getPollDelay());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /** Publishes one batch of the lane's events in one transaction; returns how many were published. */
+    public int publishBatch(int lane) {
+        Integer published = transactionTemplate.execute(_ -> publishClaimed(lane));
+        return published != null ? published : 0;
+    }
+
+    private int publishClaimed(int lane) {
+        Instant hotFrom = partitions.hotFrom();
+        List<OutboxEvent> claimed = outboxEventRepository.claimUnpublished(
+                hotFrom, properties.getLanes(), lane, properties.getBatchSize(), backingOff());
+        lag(lane).set(claimed.isEmpty() ? 0 : Duration.between(claimed.getFirst().getOccurredAt(), Instant.now()).toMillis());
+
+        if (claimed.isEmpty()) return 0;
+
+        Set<UUID> overtaking = outboxEventRepository.findOvertaking(claimed.stream().map(OutboxEvent::getId).toList(), hotFrom);
+        Set<UUID> heldBackAggregates = new HashSet<>();
+        Map<OutboxEvent, CompletableFuture<?>> sends = new LinkedHashMap<>();
+
+        for (OutboxEvent e : claimed) {
+            if (overtaking.contains(e.getId())) {
+                heldBackAggregates.add(e.getAggregateId());
+            }
+            if (!heldBackAggregates.contains(e.getAggregateId())) {
+                sends.put(e, send(e));
+            }
+        }
+
+        long deadline = System.nanoTime() + properties.getSendTimeout().toNanos();
+        Set<UUID> failedAggregates = new HashSet<>();
+        List<OutboxEvent> published = new ArrayList<>();
+
+        for (var entry : sends.entrySet()) {
+            OutboxEvent event = entry.getKey();
+            if (failedAggregates.contains(event.getAggregateId())) {
+                continue;
+            }
+            if (acknowledged(event, entry.getValue(), deadline)) {
+                backoffs.remove(event.getAggregateId());
+                published.add(event);
+            } else {
+                failedAggregates.add(event.getAggregateId());
+                recordFailure(event);
+            }
+        }
 
-        if (page.isEmpty()) return;
+        if (!published.isEmpty()) {
+            // Claimed oldest first, so the first and last event bound the batch's partitions.
+            outboxEventRepository.markPublished(published.stream().map(OutboxEvent::getId).toList(),
+                    published.getFirst().getOccurredAt(), published.getLast().getOccurredAt(), Instant.now());
+        }
 
-        for (OutboxEvent e : page.getContent()) {
-            publishSingle(e);
-            e.setPublishedAt(Instant.now());
+        meterRegistry.counter("app.outbox.published", "lane", String.valueOf(lane)).increment(published.size());
+        return published.size();
+    }
+
+    /** Backs the event's aggregate off, or dead-letters the event once it has no sends left. */
+    private void recordFailure(OutboxEvent event) {
+        boolean deadLettered = Boolean.TRUE.equals(outboxEventRepository.recordSendFailure(
+                event.getId(), event.getOccurredAt(), properties.getMaxSendFailures()));
+        if (deadLettered) {
+            log.error("Dead-lettered outbox event {} ({} of {} {}) after {} failed sends", event.getId(),
+                    event.getType(), event.getAggregateType(), event.getAggregateId(), properties.getMaxSendFailures());
+            meterRegistry.counter("app.outbox.dead-lettered", "aggregateType", event.getAggregateType()).increment();
+            backoffs.remove(event.getAggregateId());
+        } else {
+            backOff(event.getAggregateId());
         }
     }
 
-    private void publishSingle(OutboxEvent event) {
-        String topic = resolveTopic(event.getAggregateType());
-        String key = event.getAggregateId().toString();
+    /**
+     * Aggregates whose retry is not due yet, for the claim to skip. Never empty, as
+     * the query needs at least one value: the nil uuid stands in for none.
+     */
+    private List<UUID> backingOff() {
+        Instant now = Instant.now();
+        // Entries long past due belong to aggregates that were published elsewhere.
+        backoffs.values().removeIf(b -> b.retryAt().plus(properties.getMaxRetryBackoff()).isBefore(now));
+        List<UUID> skipped = backoffs.entrySet().stream()
+                .filter(e -> e.getValue().retryAt().isAfter(now))
+                .map(Map.Entry::getKey)
+                .toList();
+        return skipped.isEmpty() ? List.of(new UUID(0, 0)) : skipped;
+    }
+
+    private void backOff(UUID aggregateId) {
+        backoffs.compute(aggregateId, (_, previous) -> {
+            int failures = previous != null ? previous.failures() + 1 : 1;
+            Duration delay = properties.getRetryBackoff().multipliedBy(1L << Math.min(failures - 1, 20));
+            if (delay.compareTo(properties.getMaxRetryBackoff()) > 0) {
+                delay = properties.getMaxRetryBackoff();
+            }
+            return new Backoff(failures, Instant.now().plus(delay));
+        });
+    }
+
+    private AtomicLong lag(int lane) {
+        return lagMillis.computeIfAbsent(lane, l -> {
+            AtomicLong millis = new AtomicLong();
+            TimeGauge.builder("app.outbox.lag", millis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                    .tag("lane", String.valueOf(l))
+                    .register(meterRegistry);
+            return millis;
+        });
+    }
 
+    private CompletableFuture<?> send(OutboxEvent event) {
         try {
-            kafkaTemplate
-                    .send(topic, key, event.getPayloadJson())
-                    .get(5, TimeUnit.SECONDS);
-        } catch (Exception ex) {
-            throw new IllegalStateException(
-                    "Failed to publish outbox event " + event.getId(), ex
-            );
+            String topic = resolveTopic(event.getAggregateType());
+            String key = event.getAggregateId().toString();
+            return kafkaTemplate.send(topic, key, event.getPayloadJson());
+        } catch (RuntimeException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+    private boolean acknowledged(OutboxEvent event, CompletableFuture<?> send, long deadline) {
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException ex) {
+            log.warn("Failed to publish outbox event {}, will retry", event.getId(), ex);
+            return false;
         }
     }
 
@@ -70,5 +260,7 @@ public class OutboxKafkaPublisherJob {
             );
         };
     }
-}
 
+    private record Backoff(int failures, Instant retryAt) {
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.order_management_api.outbox;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps {@code outbox_events} partitioned by day of {@code occurred_at} (UTC). Each run
+ * creates the partitions of the coming days and drops the partitions past retention,
+ * provided every event in them is published (or dead-lettered) and every ORDER event
+ * projected. Dropping a partition replaces what would otherwise be one huge DELETE.
+ * <p>
+ * It also tracks {@link #hotFrom}, the start of the oldest partition that may still hold
+ * unpublished events, so the publisher never scans the partitions below it. A
+ * {@code default} partition catches events outside every daily range. It should stay
+ * empty; while it holds unpublished events, nothing is skipped.
+ * <p>
+ * Each partition is created or dropped in a transaction of its own, under a transaction
+ * advisory lock so one instance works at a time (the others skip their turn). The DDL
+ * needs an ACCESS EXCLUSIVE lock on {@code outbox_events}, so each step sets
+ * {@code lock_timeout} first: when publishers hold the table longer than
+ * {@code app.outbox.partitions.lock-timeout}, the run gives up until the next one
+ * rather than blocking every insert behind its queued lock. Events that landed in the
+ * {@code default} partition for a day about to get its own are moved into it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxPartitionMaintenance {
+
+    private static final String PREFIX = "outbox_events_p";
+    private static final String DEFAULT_PARTITION = "outbox_events_default";
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final String TRY_LOCK = "select pg_try_advisory_xact_lock(hashtext('outbox_partitions'))";
+
+    private static final String PARTITIONS = """
+            select c.relname
+              from pg_inherits i
+              join pg_class c on c.oid = i.inhrelid
+             where i.inhparent = 'outbox_events'::regclass
+             order by c.relname
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxPartitionProperties properties;
+
+    private volatile Instant hotFrom = Instant.EPOCH;
+
+    /** No unpublished event is older than this; {@link Instant#EPOCH} until the first run. */
+    public Instant hotFrom() {
+        return hotFrom;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.partitions.maintenance-delay-ms:600000}")
+    public void maintain() {
+        try {
+            if (createAhead()) {
+                dropExpired();
+            }
+        } catch (CannotAcquireLockException ex) {
+            log.info("Skipping outbox partition maintenance, outbox_events is busy: {}", ex.getMostSpecificCause().getMessage());
+        }
+        hotFrom = findHotFrom();
+    }
+
+    /** Returns false if another instance is maintaining the partitions. */
+    private boolean createAhead() {
+        List<LocalDate> existing = days();
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+
+        for (LocalDate day = today; !day.isAfter(today.plusDays(properties.getDaysAhead())); day = day.plusDays(1)) {
+            LocalDate current = day;
+            if (!existing.contains(day) && !step(() -> create(current))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void create(LocalDate day) {
+        Timestamp from = Timestamp.from(start(day));
+        Timestamp to = Timestamp.from(start(day.plusDays(1)));
+        // The new range must not overlap rows in the default partition: lift them out
+        // first and put them back through the parent once the partition exists.
+        boolean stranded = Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select exists (select 1 from " + DEFAULT_PARTITION + " where occurred_at >= ? and occurred_at < ?)",
+                Boolean.class, from, to));
+        if (stranded) {
+            jdbcTemplate.execute("create temporary table outbox_events_moving (like outbox_events) on commit drop");
+            jdbcTemplate.update("with moved as (delete from " + DEFAULT_PARTITION
+                    + " where occurred_at >= ? and occurred_at < ? returning *)"
+                    + " insert into outbox_events_moving select * from moved", from, to);
+        }
+
+        jdbcTemplate.execute("create table " + name(day) + " partition of outbox_events"
+                + " for values from ('" + start(day) + "') to ('" + start(day.plusDays(1)) + "')");
+
+        if (stranded) {
+            int moved = jdbcTemplate.update("insert into outbox_events select * from outbox_events_moving");
+            log.info("Created outbox partition {} and moved {} events into it from the default partition", name(day), moved);
+        } else {
+            log.info("Created outbox partition {}", name(day));
+        }
+    }
+
+    private void dropExpired() {
+        Instant expiredBefore = Instant.now().minus(properties.getRetention());
+
+        for (LocalDate day : days()) {
+            if (start(day.plusDays(1)).isAfter(expiredBefore)) {
+                break;
+            }
+            boolean ran = step(() -> {
+                if (isSettled(name(day))) {
+                    jdbcTemplate.execute("drop table " + name(day));
+                    log.info("Dropped outbox partition {}", name(day));
+                }
+            });
+            if (!ran) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs one DDL step in a short transaction of its own, waiting at most
+     * {@code lock-timeout} for each lock. Returns false, without running it, if another
+     * instance holds the maintenance lock.
+     */
+    private boolean step(Runnable ddl) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(_ -> {
+            jdbcTemplate.execute("set local lock_timeout = '" + properties.getLockTimeout().toMillis() + "ms'");
+            if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK, Boolean.class))) {
+                return false;
+            }
+            ddl.run();
+            return true;
+        }));
+    }
+
+    private Instant findHotFrom() {
+        if (hasUnpublished(DEFAULT_PARTITION)) {
+            return Instant.EPOCH;
+        }
+        Instant settledBefore = Instant.now().minus(properties.getSettleTime());
+
+        for (LocalDate day : days()) {
+            if (start(day.plusDays(1)).isAfter(settledBefore) || hasUnpublished(name(day))) {
+                return start(day);
+            }
+        }
+        return Instant.EPOCH;
+    }
+
+    /** Every event published or dead-lettered, and every ORDER event folded into order_summary. */
+    private boolean isSettled(String partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select not exists (select 1 from " + partition + " where (published_at is null and dead_lettered_at is null)"
+                        + " or (projected_at is null and aggregate_type = 'ORDER'))",
+                Boolean.class));
+    }
+
+    private boolean hasUnpublished(String partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "select exists (select 1 from " + partition + " where published_at is null and dead_lettered_at is null)",
+                Boolean.class));
+    }
+
+    /** Days that have a partition, oldest first. */
+    private List<LocalDate> days() {
+        return jdbcTemplate.queryForList(PARTITIONS, String.class).stream()
+                .filter(name -> name.startsWith(PREFIX))
+                .map(name -> LocalDate.parse(name.substring(PREFIX.length()), SUFFIX))
+                .toList();
+    }
+
+    private static String name(LocalDate day) {
+        return PREFIX + day.format(SUFFIX);
+    }
+
+    private static Instant start(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+}
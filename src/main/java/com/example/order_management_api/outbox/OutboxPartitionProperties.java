@@ -0,0 +1,33 @@
+package com.example.order_management_api.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.outbox.partitions")
+public class OutboxPartitionProperties {
+
+    /** Daily partitions kept created ahead of today, so inserts never land in the default one. */
+    private int daysAhead = 7;
+
+    /** How long a day's partition is kept after the day ends, if all of it is published and projected. */
+    private Duration retention = Duration.ofDays(7);
+
+    /**
+     * How long after a day ends its partition may still receive events, from transactions
+     * that began before midnight and commit after it.
+     */
+    private Duration settleTime = Duration.ofHours(1);
+
+    /**
+     * How long a partition step waits for its lock on {@code outbox_events}. Past it the
+     * step gives up and the run is skipped, instead of queueing every writer behind it.
+     */
+    private Duration lockTimeout = Duration.ofSeconds(2);
+}
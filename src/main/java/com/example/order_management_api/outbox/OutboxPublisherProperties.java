@@ -0,0 +1,45 @@
+package com.example.order_management_api.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.outbox.publisher")
+public class OutboxPublisherProperties {
+
+    /**
+     * Workers draining the outbox, each owning the aggregates whose id hashes to it.
+     * Changing it moves aggregates between lanes; order still holds because a lane
+     * never overtakes an earlier unpublished event of its aggregates.
+     */
+    private int lanes = 4;
+
+    /** Unsent events a lane reads and sends per transaction. */
+    private int batchSize = 50;
+
+    /** Pause of an idle lane before it looks for events again. */
+    private Duration pollDelay = Duration.ofSeconds(1);
+
+    /** How long a batch waits for the broker to acknowledge all of it. */
+    private Duration sendTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Pause before an aggregate whose send failed is tried again. It doubles with
+     * each further failure, up to {@link #maxRetryBackoff}.
+     */
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    private Duration maxRetryBackoff = Duration.ofMinutes(5);
+
+    /**
+     * Failed sends after which an event is dead-lettered: it is no longer retried,
+     * and the later events of its aggregate are published without it.
+     */
+    private int maxSendFailures = 10;
+}
@@ -0,0 +1,212 @@
+package com.example.order_management_api.projection;
+
+import com.example.order_management_api.model.OrderStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Maintains {@code order_summary}: orders, items and revenue per day of creation
+ * (UTC) and current status. Fed from the ORDER events in the outbox, like the Kafka
+ * publisher; an event is marked {@code projected_at} in the transaction that folds it
+ * in, so each is counted exactly once. Events say which transition happened; the
+ * amounts come from the order lines, which never change.
+ * <p>
+ * Projection batches and {@link #rebuild} exclude each other through a transaction
+ * advisory lock, and a node that cannot get it simply skips its turn.
+ */
+@Component
+public class OrderSummaryProjector {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSummaryProjector.class);
+
+    private static final String TRY_LOCK = "select pg_try_advisory_xact_lock(hashtext('order_summary'))";
+    private static final String LOCK = "select pg_advisory_xact_lock(hashtext('order_summary'))";
+
+    private static final String CLAIM = """
+            select id, aggregate_id, type, occurred_at
+              from outbox_events
+             where aggregate_type = 'ORDER'
+               and projected_at is null
+             order by occurred_at
+             limit :limit
+            """;
+
+    private static final String ORDER_TOTALS = """
+            select o.id, (o.created_at at time zone 'UTC')::date as day,
+                   sum(i.quantity) as items, sum(i.quantity * i.unit_price_at_purchase) as revenue
+              from orders o
+              join order_items i on i.order_id = o.id
+             where o.id in (:ids)
+             group by o.id, o.created_at
+            """;
+
+    private static final String UPSERT = """
+            insert into order_summary (day, status, orders, items, revenue)
+            values (:day, :status, :orders, :items, :revenue)
+            on conflict (day, status) do update
+               set orders = order_summary.orders + excluded.orders,
+                   items = order_summary.items + excluded.items,
+                   revenue = order_summary.revenue + excluded.revenue
+            """;
+
+    // The batch's occurred_at range lets Postgres prune the outbox partitions the ids cannot be in.
+    private static final String MARK = """
+            update outbox_events set projected_at = now()
+             where id in (:ids)
+               and occurred_at between :from and :to
+            """;
+
+    // One statement, hence one snapshot: an order is counted exactly when its events are marked.
+    private static final String REBUILD = """
+            with marked as (
+                update outbox_events set projected_at = now()
+                 where aggregate_type = 'ORDER' and projected_at is null
+            )
+            insert into order_summary (day, status, orders, items, revenue)
+            select (o.created_at at time zone 'UTC')::date, o.status, count(*), sum(t.items), sum(t.revenue)
+              from orders o
+              join (select order_id, sum(quantity) as items, sum(quantity * unit_price_at_purchase) as revenue
+                      from order_items
+                     group by order_id) t on t.order_id = o.id
+             group by 1, 2
+            """;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    public OrderSummaryProjector(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.order.summary.batch-size:500}") int batchSize
+    ) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.order.summary.projector-delay-ms:1000}")
+    public void project() {
+        int total = 0;
+        int projected;
+        do {
+            projected = transactionTemplate.execute(_ -> projectBatch());
+            total += projected;
+        } while (projected == batchSize);
+
+        if (total > 0) {
+            log.debug("Projected {} order events into order_summary", total);
+        }
+    }
+
+    /** Recomputes {@code order_summary} from the orders and marks every pending ORDER event as projected. */
+    public void rebuild() {
+        transactionTemplate.executeWithoutResult(_ -> {
+            jdbcTemplate.getJdbcTemplate().execute(LOCK);
+            jdbcTemplate.getJdbcTemplate().update("delete from order_summary");
+            jdbcTemplate.getJdbcTemplate().update(REBUILD);
+        });
+        log.info("Rebuilt order_summary");
+    }
+
+    private int projectBatch() {
+        if (!Boolean.TRUE.equals(jdbcTemplate.getJdbcTemplate().queryForObject(TRY_LOCK, Boolean.class))) {
+            return 0;
+        }
+
+        List<UUID> eventIds = new ArrayList<>();
+        List<OffsetDateTime> occurredAt = new ArrayList<>();
+        List<Transition> transitions = new ArrayList<>();
+        jdbcTemplate.query(CLAIM, Map.of("limit", batchSize), rs -> {
+            eventIds.add(rs.getObject("id", UUID.class));
+            occurredAt.add(rs.getObject("occurred_at", OffsetDateTime.class));
+            Transition.of(rs.getObject("aggregate_id", UUID.class), rs.getString("type")).ifPresent(transitions::add);
+        });
+        if (eventIds.isEmpty()) {
+            return 0;
+        }
+
+        Map<UUID, OrderTotals> totals = new HashMap<>();
+        if (!transitions.isEmpty()) {
+            jdbcTemplate.query(ORDER_TOTALS, Map.of("ids", transitions.stream().map(Transition::orderId).toList()), rs -> {
+                totals.put(rs.getObject("id", UUID.class), new OrderTotals(
+                        rs.getObject("day", LocalDate.class), rs.getLong("items"), rs.getBigDecimal("revenue")));
+            });
+        }
+
+        // Net change per row, so a batch updates each (day, status) once however many orders it covers.
+        Map<SummaryKey, Delta> deltas = new HashMap<>();
+        for (Transition transition : transitions) {
+            OrderTotals order = totals.get(transition.orderId());
+            if (order == null) {
+                continue;
+            }
+            if (transition.from() != null) {
+                deltas.merge(new SummaryKey(order.day(), transition.from()), order.delta(-1), Delta::plus);
+            }
+            deltas.merge(new SummaryKey(order.day(), transition.to()), order.delta(1), Delta::plus);
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT, deltas.entrySet().stream()
+                .map(e -> new MapSqlParameterSource()
+                        .addValue("day", e.getKey().day())
+                        .addValue("status", e.getKey().status().name())
+                        .addValue("orders", e.getValue().orders())
+                        .addValue("items", e.getValue().items())
+                        .addValue("revenue", e.getValue().revenue()))
+                .toArray(SqlParameterSource[]::new));
+        // Claimed oldest first, so the first and last event bound the batch.
+        jdbcTemplate.update(MARK, Map.of("ids", eventIds, "from", occurredAt.getFirst(), "to", occurredAt.getLast()));
+
+        return eventIds.size();
+    }
+
+    /** What an event does to the summary: moves one order from {@code from} (null for a new one) to {@code to}. */
+    private record Transition(UUID orderId, OrderStatus from, OrderStatus to) {
+
+        static Optional<Transition> of(UUID orderId, String eventType) {
+            return switch (eventType) {
+                case "OrderCreated" -> Optional.of(new Transition(orderId, null, OrderStatus.CREATED));
+                case "OrderPaid" -> Optional.of(new Transition(orderId, OrderStatus.CREATED, OrderStatus.PAID));
+                case "OrderCancelled" -> Optional.of(new Transition(orderId, OrderStatus.CREATED, OrderStatus.CANCELLED));
+                default -> Optional.empty();
+            };
+        }
+    }
+
+    private record OrderTotals(LocalDate day, long items, BigDecimal revenue) {
+
+        Delta delta(int sign) {
+            return new Delta(sign, sign * items, revenue.multiply(BigDecimal.valueOf(sign)));
+        }
+    }
+
+    private record SummaryKey(LocalDate day, OrderStatus status) {
+    }
+
+    private record Delta(long orders, long items, BigDecimal revenue) {
+
+        Delta plus(Delta other) {
+            return new Delta(orders + other.orders, items + other.items, revenue.add(other.revenue));
+        }
+    }
+}
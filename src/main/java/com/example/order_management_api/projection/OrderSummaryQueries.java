@@ -0,0 +1,78 @@
+package com.example.order_management_api.projection;
+
+import com.example.order_management_api.api.OrderStatsResponse;
+import com.example.order_management_api.model.OrderStatus;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads of {@code order_summary}. A day range touches one row per day and status,
+ * so answers take the same time whatever the number of orders behind them.
+ */
+@Component
+public class OrderSummaryQueries {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public OrderSummaryQueries(DataSource dataSource) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /** One row per day and status in [{@code from}, {@code to}] (either open when null), oldest day first. */
+    @Transactional(readOnly = true)
+    public List<OrderStatsResponse> daily(LocalDate from, LocalDate to, OrderStatus status) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String where = where(from, to, status, parameters);
+        return jdbcTemplate.query(
+                "select day, status, orders, items, revenue from order_summary" + where + " order by day, status",
+                parameters,
+                rowMapper(true));
+    }
+
+    /** One row per status, summed over [{@code from}, {@code to}]. */
+    @Transactional(readOnly = true)
+    public List<OrderStatsResponse> totals(LocalDate from, LocalDate to) {
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        String where = where(from, to, null, parameters);
+        return jdbcTemplate.query(
+                "select status, sum(orders) as orders, sum(items) as items, sum(revenue) as revenue from order_summary"
+                        + where + " group by status order by status",
+                parameters,
+                rowMapper(false));
+    }
+
+    private static String where(LocalDate from, LocalDate to, OrderStatus status, Map<String, Object> parameters) {
+        List<String> conditions = new ArrayList<>();
+        if (from != null) {
+            conditions.add("day >= :from");
+            parameters.put("from", from);
+        }
+        if (to != null) {
+            conditions.add("day <= :to");
+            parameters.put("to", to);
+        }
+        if (status != null) {
+            conditions.add("status = :status");
+            parameters.put("status", status.name());
+        }
+        return conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions);
+    }
+
+    private static RowMapper<OrderStatsResponse> rowMapper(boolean withDay) {
+        return (rs, _) -> new OrderStatsResponse(
+                withDay ? rs.getObject("day", LocalDate.class) : null,
+                OrderStatus.valueOf(rs.getString("status")),
+                rs.getLong("orders"),
+                rs.getLong("items"),
+                rs.getBigDecimal("revenue"));
+    }
+}
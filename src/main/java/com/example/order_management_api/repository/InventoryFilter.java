@@ -0,0 +1,10 @@
+package com.example.order_management_api.repository;
+
+/**
+ * Optional criteria of an inventory listing; null fields do not filter.
+ * {@code lowStock} keeps products whose logical available stock is at most that number.
+ */
+public record InventoryFilter(
+        Integer lowStock,
+        Boolean active
+) {}
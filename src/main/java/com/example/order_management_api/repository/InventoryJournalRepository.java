@@ -0,0 +1,64 @@
+package com.example.order_management_api.repository;
+
+import com.example.order_management_api.model.InventoryJournalEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface InventoryJournalRepository extends JpaRepository<InventoryJournalEntry, Long> {
+
+    interface ProductDelta {
+        UUID getProductId();
+
+        int getDelta();
+
+        int getReservedDelta();
+    }
+
+    interface LiveStock {
+        UUID getProductId();
+
+        int getAvailable();
+    }
+
+    /**
+     * Deletes and returns every committed journal row of up to {@code productLimit}
+     * products. Whole products are taken so a drained batch never applies a
+     * reservation without the release that compensates it.
+     */
+    @Query(value = """
+            delete from inventory_journal
+             where product_id in (
+                       select distinct product_id
+                         from inventory_journal
+                        limit :productLimit)
+            returning product_id as productId, delta, reserved_delta as reservedDelta
+            """, nativeQuery = true)
+    List<ProductDelta> drain(@Param("productLimit") int productLimit);
+
+    /** Live stock of every product: the inventory row, its stripes and the pending journal, in one snapshot. */
+    @Query(value = """
+            select i.product_id as productId,
+                   i.available
+                   + coalesce((select sum(s.available) from inventory_stripes s where s.product_id = i.product_id), 0)
+                   + coalesce((select sum(j.delta) from inventory_journal j where j.product_id = i.product_id), 0)
+                   as available
+              from inventories i
+            """, nativeQuery = true)
+    List<LiveStock> findLiveStock();
+
+    @Query(value = """
+            select i.product_id as productId,
+                   i.available
+                   + coalesce((select sum(s.available) from inventory_stripes s where s.product_id = i.product_id), 0)
+                   + coalesce((select sum(j.delta) from inventory_journal j where j.product_id = i.product_id), 0)
+                   as available
+              from inventories i
+             where i.product_id = :productId
+            """, nativeQuery = true)
+    Optional<LiveStock> findLiveStock(@Param("productId") UUID productId);
+}
@@ -0,0 +1,17 @@
+package com.example.order_management_api.repository;
+
+import com.example.order_management_api.api.InventoryResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface InventoryListingRepository {
+
+    /**
+     * Up to {@code limit} inventories matching {@code filter}, by product id, starting
+     * right after {@code afterProductId} (null for the first page). Rows are read
+     * straight into responses with the product name joined in and stripes summed in
+     * SQL: one statement per page, no entities and no per-row product loads.
+     */
+    List<InventoryResponse> findPage(InventoryFilter filter, UUID afterProductId, int limit);
+}
@@ -1,16 +1,63 @@
 package com.example.order_management_api.repository;
 
 import com.example.order_management_api.model.Inventory;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
-public interface InventoryRepository extends JpaRepository<Inventory, UUID> {
+public interface InventoryRepository extends JpaRepository<Inventory, UUID>, InventoryListingRepository {
 
     Optional<Inventory> findByProduct_Id(UUID productId);
 
     List<Inventory> findByProduct_IdIn(Collection<UUID> productIds);
+
+    /**
+     * Loads and row-locks the inventories in one query. Rows are locked in
+     * product-id order, so two transactions sharing products always lock them in
+     * the same sequence and cannot deadlock each other.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Inventory i where i.product.id in :productIds order by i.product.id")
+    List<Inventory> findAllForUpdate(@Param("productIds") Collection<UUID> productIds);
+
+    /**
+     * Like {@link #findAllForUpdate}, but skips striped products: their stock lives
+     * in the stripes, and locking the inventory row would serialize them again.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select i from Inventory i
+             where i.product.id in :productIds
+               and i.stripeCount = 1
+             order by i.product.id
+            """)
+    List<Inventory> findAllUnstripedForUpdate(@Param("productIds") Collection<UUID> productIds);
+
+    /**
+     * Moves stock to reserved in one statement, only if enough is available. Bumps the version
+     * so entity-based writers still detect the change. Returns the affected row
+     * count: 0 means not enough stock, a striped product, or no inventory at all.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            update Inventory i
+               set i.available = i.available - :quantity,
+                   i.reserved = i.reserved + :quantity,
+                   i.version = i.version + 1
+             where i.product.id = :productId
+               and i.stripeCount = 1
+               and i.available >= :quantity
+            """)
+    int decrementAvailable(@Param("productId") UUID productId, @Param("quantity") int quantity);
+
+    @Query("select i.available from Inventory i where i.product.id = :productId")
+    Optional<Integer> findAvailableByProductId(@Param("productId") UUID productId);
 }
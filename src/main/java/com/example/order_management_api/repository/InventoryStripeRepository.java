@@ -0,0 +1,62 @@
+package com.example.order_management_api.repository;
+
+import com.example.order_management_api.model.InventoryStripe;
+import com.example.order_management_api.model.InventoryStripeId;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface InventoryStripeRepository extends JpaRepository<InventoryStripe, InventoryStripeId> {
+
+    /**
+     * Moves stock to reserved on a random stripe that has enough and is not locked by another
+     * reservation right now. Returns 0 when every candidate stripe is busy or short.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            update inventory_stripes
+               set available = available - :quantity,
+                   reserved = reserved + :quantity,
+                   version = version + 1
+             where (product_id, stripe) = (
+                       select c.product_id, c.stripe
+                         from inventory_stripes c
+                        where c.product_id = :productId
+                          and c.available >= :quantity
+                        order by random()
+                        limit 1
+                          for update skip locked)
+               and available >= :quantity
+            """, nativeQuery = true)
+    int decrementRandomFreeStripe(@Param("productId") UUID productId, @Param("quantity") int quantity);
+
+    /** Same as {@link #decrementRandomFreeStripe}, but waits for a busy stripe instead of skipping it. */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            update inventory_stripes
+               set available = available - :quantity,
+                   reserved = reserved + :quantity,
+                   version = version + 1
+             where (product_id, stripe) = (
+                       select c.product_id, c.stripe
+                         from inventory_stripes c
+                        where c.product_id = :productId
+                          and c.available >= :quantity
+                        order by random()
+                        limit 1
+                          for update)
+               and available >= :quantity
+            """, nativeQuery = true)
+    int decrementRandomStripe(@Param("productId") UUID productId, @Param("quantity") int quantity);
+
+    /** Locks all stripes of a product, in stripe order, for draining or rebalancing. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from InventoryStripe s where s.id.productId = :productId order by s.id.stripe")
+    List<InventoryStripe> findAllForUpdate(@Param("productId") UUID productId);
+}
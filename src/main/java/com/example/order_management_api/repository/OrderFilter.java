@@ -0,0 +1,22 @@
+package com.example.order_management_api.repository;
+
+import com.example.order_management_api.model.OrderStatus;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Optional criteria of an order listing; null fields do not filter.
+ * {@code from} is inclusive, {@code to} exclusive.
+ */
+public record OrderFilter(
+        OrderStatus status,
+        Instant from,
+        Instant to,
+        String customerEmail,
+        UUID userId
+) {
+    public static OrderFilter ofUser(UUID userId, OrderStatus status) {
+        return new OrderFilter(status, null, null, null, userId);
+    }
+}
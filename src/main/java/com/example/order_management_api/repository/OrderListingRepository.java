@@ -0,0 +1,25 @@
+package com.example.order_management_api.repository;
+
+import com.example.order_management_api.api.OrderSummaryResponse;
+import com.example.order_management_api.model.Order;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+public interface OrderListingRepository {
+
+    /**
+     * Up to {@code limit} orders matching {@code filter}, newest first by (createdAt, id),
+     * starting right after the given position (null for the first page). Seeks on
+     * the (created_at, id) indexes, so a deep page costs the same as the first one.
+     */
+    List<Order> findPage(OrderFilter filter, Instant afterCreatedAt, UUID afterId, int limit);
+
+    /**
+     * Same page as {@link #findPage}, as summaries read straight from the orders
+     * columns: no entities and no items. For a user's orders the
+     * (user_id, created_at, id) index covers them, so no table rows are visited.
+     */
+    List<OrderSummaryResponse> findSummaryPage(OrderFilter filter, Instant afterCreatedAt, UUID afterId, int limit);
+}
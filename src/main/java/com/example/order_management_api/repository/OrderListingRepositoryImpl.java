@@ -0,0 +1,73 @@
+package com.example.order_management_api.repository;
+
+import com.example.order_management_api.api.OrderSummaryResponse;
+import com.example.order_management_api.model.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+class OrderListingRepositoryImpl implements OrderListingRepository {
+
+    private static final String SUMMARY = "select new " + OrderSummaryResponse.class.getName()
+            + "(o.id, o.status, o.createdAt, o.holdExpiresAt) from Order o";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Order> findPage(OrderFilter filter, Instant afterCreatedAt, UUID afterId, int limit) {
+        return page("select o from Order o", Order.class, filter, afterCreatedAt, afterId, limit);
+    }
+
+    @Override
+    public List<OrderSummaryResponse> findSummaryPage(OrderFilter filter, Instant afterCreatedAt, UUID afterId, int limit) {
+        return page(SUMMARY, OrderSummaryResponse.class, filter, afterCreatedAt, afterId, limit);
+    }
+
+    private <T> List<T> page(String select, Class<T> type, OrderFilter filter, Instant afterCreatedAt, UUID afterId, int limit) {
+        List<String> conditions = new ArrayList<>();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+
+        if (filter.userId() != null) {
+            conditions.add("o.user.id = :userId");
+            parameters.put("userId", filter.userId());
+        }
+        if (filter.status() != null) {
+            conditions.add("o.status = :status");
+            parameters.put("status", filter.status());
+        }
+        if (filter.from() != null) {
+            conditions.add("o.createdAt >= :from");
+            parameters.put("from", filter.from());
+        }
+        if (filter.to() != null) {
+            conditions.add("o.createdAt < :to");
+            parameters.put("to", filter.to());
+        }
+        if (filter.customerEmail() != null) {
+            conditions.add("o.customerEmail = :customerEmail");
+            parameters.put("customerEmail", filter.customerEmail());
+        }
+        if (afterId != null) {
+            // A row comparison, not "a < x or (a = x and b < y)": Postgres turns it into an index seek.
+            conditions.add("(o.createdAt, o.id) < (:afterCreatedAt, :afterId)");
+            parameters.put("afterCreatedAt", afterCreatedAt);
+            parameters.put("afterId", afterId);
+        }
+
+        String jpql = select
+                + (conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions))
+                + " order by o.createdAt desc, o.id desc";
+
+        TypedQuery<T> query = entityManager.createQuery(jpql, type).setMaxResults(limit);
+        parameters.forEach(query::setParameter);
+        return query.getResultList();
+    }
+}
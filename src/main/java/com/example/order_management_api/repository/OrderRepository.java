@@ -1,15 +1,79 @@
 package com.example.order_management_api.repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.example.order_management_api.model.Order;
 import com.example.order_management_api.model.OrderStatus;
 
-public interface OrderRepository extends JpaRepository<Order, UUID> {
-    List<Order> findByStatus(OrderStatus status);
+public interface OrderRepository extends JpaRepository<Order, UUID>, OrderListingRepository {
 
-    List<Order> findByUser_Id(UUID userId);
+    interface ProductQuantity {
+        UUID getProductId();
+
+        long getQuantity();
+    }
+
+    interface OrderVersion {
+        UUID getOwnerId();
+
+        OrderStatus getStatus();
+    }
+
+    /** Owner and status of an order, without loading it: enough to answer a conditional GET. */
+    @Query("select o.user.id as ownerId, o.status as status from Order o where o.id = :id")
+    Optional<OrderVersion> findVersionById(@Param("id") UUID id);
+
+    /**
+     * Loads orders with their items in one query. Orders already in the persistence
+     * context get their items initialized in place, so the mapper does not fire one
+     * query per order.
+     */
+    @EntityGraph(attributePaths = "items")
+    List<Order> findWithItemsByIdIn(Collection<UUID> ids);
+
+    /** Loads and row-locks an order, so paying or cancelling it cannot race the hold sweeper. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select o from Order o where o.id = :id")
+    Optional<Order> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Cancels up to {@code limit} unpaid orders whose stock hold ran out before
+     * {@code now}, oldest hold first, and returns their ids. Orders locked by another
+     * transaction (being paid or cancelled right now) are skipped.
+     */
+    @Query(value = """
+            update orders
+               set status = 'CANCELLED',
+                   hold_expires_at = null
+             where id in (
+                       select id
+                         from orders
+                        where status = 'CREATED'
+                          and hold_expires_at < :now
+                        order by hold_expires_at
+                        limit :limit
+                          for update skip locked)
+            returning id
+            """, nativeQuery = true)
+    List<UUID> cancelExpiredHolds(@Param("now") Instant now, @Param("limit") int limit);
+
+    /** Total quantity per product over the lines of the given orders. */
+    @Query("""
+            select i.productId as productId, sum(i.quantity) as quantity
+              from OrderItem i
+             where i.order.id in :orderIds
+             group by i.productId
+            """)
+    List<ProductQuantity> sumQuantitiesByProduct(@Param("orderIds") Collection<UUID> orderIds);
 }
@@ -2,11 +2,38 @@ package com.example.order_management_api.repository;
 
 import com.example.order_management_api.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 public interface ProductRepository extends JpaRepository<Product, UUID> {
 
+    interface ProductVersion {
+        Instant getUpdatedAt();
+
+        long getInventoryVersion();
+
+        long getStripeVersion();
+    }
+
     List<Product> findByActive(boolean active);
+
+    /**
+     * What a product's representation depends on, without loading it: the product's
+     * updatedAt, the inventory row version and the summed stripe versions. Every
+     * write to any of them bumps one of these numbers.
+     */
+    @Query("""
+            select p.updatedAt as updatedAt,
+                   i.version as inventoryVersion,
+                   (select coalesce(sum(s.version), 0) from InventoryStripe s where s.id.productId = p.id) as stripeVersion
+              from Inventory i
+              join i.product p
+             where p.id = :id
+            """)
+    Optional<ProductVersion> findVersionById(@Param("id") UUID id);
 }
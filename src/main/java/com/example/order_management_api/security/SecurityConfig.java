@@ -38,11 +38,12 @@ public class SecurityConfig {
                         // public
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers("/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
                         .requestMatchers(HttpMethod.GET, "/products/**").permitAll()
                         // admin only
                         .requestMatchers("/products/**").hasRole("ADMIN")
-                        .requestMatchers("/inventory/**", "/outbox-events/**", "/admin/**").hasRole("ADMIN")
-                        .requestMatchers(HttpMethod.GET, "/orders").hasRole("ADMIN")
+                        .requestMatchers("/inventory/**", "/outbox-events/**", "/admin/**", "/actuator/**").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/orders", "/orders/export").hasRole("ADMIN")
                         // any authenticated user (USER or ADMIN)
                         .anyRequest().authenticated())
                 .oauth2ResourceServer(oauth2 -> oauth2
@@ -40,7 +40,11 @@ public class AuthService {
         return userMapper.toResponse(userRepository.save(user));
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Not read-only on purpose: read-only transactions may go to a replica, and a
+     * login right after registering must find the new user.
+     */
+    @Transactional
     public TokenResponse login(LoginRequest request) {
         User user = userRepository.findByEmail(request.email())
                 .orElseThrow(InvalidCredentialsException::new);
@@ -0,0 +1,118 @@
+package com.example.order_management_api.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import jakarta.persistence.PessimisticLockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work in its own transaction and re-runs it when it loses a
+ * concurrency race (optimistic version check, lock timeout, deadlock), so hot rows
+ * cost callers a little latency instead of a 409.
+ * <p>
+ * Every attempt gets a new transaction and therefore a fresh persistence context,
+ * which is why this only retries when called outside an existing transaction
+ * (and why open-in-view is disabled). Inside one, the work runs exactly once.
+ */
+@Component
+public class ConflictRetryExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(ConflictRetryExecutor.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final ConflictRetryProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public ConflictRetryExecutor(
+            PlatformTransactionManager transactionManager,
+            ConflictRetryProperties properties,
+            MeterRegistry meterRegistry
+    ) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T inTransaction(String operation, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Joining the caller's transaction: a retry would reuse its stale persistence context.
+            return work.get();
+        }
+
+        int maxAttempts = Math.max(1, properties.getMaxAttempts());
+
+        for (int attempt = 1; ; attempt++) {
+            counter("app.retry.conflict.attempts", operation).increment();
+            try {
+                T result = transactionTemplate.execute(status -> work.get());
+                if (attempt > 1) {
+                    counter("app.retry.conflict.recovered", operation).increment();
+                }
+                return result;
+            } catch (RuntimeException ex) {
+                if (!isConflict(ex)) {
+                    throw ex;
+                }
+                if (attempt >= maxAttempts) {
+                    counter("app.retry.conflict.exhausted", operation).increment();
+                    log.warn("Giving up on {} after {} conflicting attempts", operation, attempt);
+                    throw ex;
+                }
+                log.debug("Conflict on {} (attempt {}/{}), retrying", operation, attempt, maxAttempts);
+                if (!backOff(attempt)) {
+                    log.warn("Interrupted while retrying {}, giving up after {} attempts", operation, attempt);
+                    throw ex;
+                }
+            }
+        }
+    }
+
+    private Counter counter(String name, String operation) {
+        return meterRegistry.counter(name, "operation", operation);
+    }
+
+    /** Whether {@code ex} (or any cause) is a lost race that a fresh attempt could win. */
+    static boolean isConflict(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof ConcurrencyFailureException
+                    || t instanceof OptimisticLockException
+                    || t instanceof PessimisticLockException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Exponential backoff with full jitter, so colliding callers spread out instead of colliding again.
+     * Returns false, with the interrupt restored, when the thread is interrupted and should stop retrying.
+     */
+    private boolean backOff(int attempt) {
+        if (Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        long initial = properties.getInitialBackoff().toMillis();
+        long cap = properties.getMaxBackoff().toMillis();
+        long ceiling = Math.min(cap, initial << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.order_management_api.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.retry.conflict")
+public class ConflictRetryProperties {
+
+    /** Total attempts including the first one; 1 disables retries. */
+    private int maxAttempts = 3;
+
+    private Duration initialBackoff = Duration.ofMillis(10);
+
+    private Duration maxBackoff = Duration.ofMillis(200);
+}
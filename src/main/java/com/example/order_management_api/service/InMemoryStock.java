@@ -0,0 +1,176 @@
+package com.example.order_management_api.service;
+
+import com.example.order_management_api.exception.ProductNotFoundException;
+import com.example.order_management_api.model.InventoryJournalEntry;
+import com.example.order_management_api.repository.InventoryJournalRepository;
+import com.example.order_management_api.repository.InventoryJournalRepository.LiveStock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Live stock counts for the {@code in-memory} reservation mode: reservations are a
+ * CAS on an {@link AtomicInteger} instead of a database round trip.
+ * <p>
+ * Durability comes from {@code inventory_journal}: every change is appended in the
+ * caller's transaction, so after a crash the counts are rebuilt from inventories
+ * plus the journal and nothing committed can be sold twice. Counts only ever run
+ * ahead of the database in the safe direction: takes are applied immediately and
+ * given back if the transaction rolls back, gives are applied after commit.
+ * Only available stock is counted here; reserved stock is journaled alongside and
+ * reaches the rows with the write-behind.
+ * <p>
+ * Single-node only: another instance would not see these counts.
+ */
+@Component
+public class InMemoryStock {
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryStock.class);
+
+    private final ConcurrentHashMap<UUID, AtomicInteger> counts = new ConcurrentHashMap<>();
+    private final InventoryJournalRepository journalRepository;
+    private final InventoryProperties properties;
+
+    public InMemoryStock(InventoryJournalRepository journalRepository, InventoryProperties properties) {
+        this.journalRepository = journalRepository;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (properties.getReservationMode() != InventoryProperties.ReservationMode.IN_MEMORY) {
+            return;
+        }
+        for (LiveStock stock : journalRepository.findLiveStock()) {
+            counts.put(stock.getProductId(), new AtomicInteger(stock.getAvailable()));
+        }
+        log.info("Loaded in-memory stock for {} products", counts.size());
+    }
+
+    public int available(UUID productId) {
+        return counter(productId).get();
+    }
+
+    /**
+     * Moves stock to reserved for every product, in key order, or for none of them. Returns the
+     * id of the first product that could not be satisfied, or null on success.
+     */
+    public UUID tryReserveAll(SortedMap<UUID, Integer> quantities) {
+        List<Map.Entry<UUID, Integer>> taken = new ArrayList<>();
+
+        try {
+            for (Map.Entry<UUID, Integer> line : quantities.entrySet()) {
+                if (!tryTake(counter(line.getKey()), line.getValue())) {
+                    giveBack(taken);
+                    return line.getKey();
+                }
+                taken.add(line);
+            }
+        } catch (RuntimeException ex) {
+            giveBack(taken);
+            throw ex;
+        }
+
+        onRollback(() -> giveBack(taken));
+
+        List<InventoryJournalEntry> entries = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> entries.add(new InventoryJournalEntry(productId, -quantity, quantity)));
+        journalRepository.saveAll(entries);
+        return null;
+    }
+
+    /** Gives reserved stock back once the caller's transaction commits. Returns the expected new count. */
+    public int release(UUID productId, int quantity) {
+        AtomicInteger counter = counter(productId);
+        journalRepository.save(new InventoryJournalEntry(productId, quantity, -quantity));
+        onCommit(() -> counter.addAndGet(quantity));
+        return counter.get() + quantity;
+    }
+
+    /** Takes stock out of reserved for good; the available count does not change. */
+    public void commit(UUID productId, int quantity) {
+        journalRepository.save(new InventoryJournalEntry(productId, 0, -quantity));
+    }
+
+    /**
+     * Replaces the count atomically with {@code update(previous)} and journals the
+     * difference. {@code update} may throw to reject the change. Returns the previous count.
+     */
+    public int update(UUID productId, IntUnaryOperator update) {
+        AtomicInteger counter = counter(productId);
+        int previous;
+        int next;
+        do {
+            previous = counter.get();
+            next = update.applyAsInt(previous);
+        } while (!counter.compareAndSet(previous, next));
+
+        int delta = next - previous;
+        journalRepository.save(new InventoryJournalEntry(productId, delta, 0));
+        onRollback(() -> counter.addAndGet(-delta));
+        return previous;
+    }
+
+    private void giveBack(List<Map.Entry<UUID, Integer>> taken) {
+        taken.forEach(line -> counter(line.getKey()).addAndGet(line.getValue()));
+    }
+
+    private static boolean tryTake(AtomicInteger counter, int quantity) {
+        while (true) {
+            int current = counter.get();
+            if (current < quantity) {
+                return false;
+            }
+            if (counter.compareAndSet(current, current - quantity)) {
+                return true;
+            }
+        }
+    }
+
+    private AtomicInteger counter(UUID productId) {
+        // Products created after startup are loaded on first use, from one consistent snapshot.
+        return counts.computeIfAbsent(productId, id -> journalRepository.findLiveStock(id)
+                .map(stock -> new AtomicInteger(stock.getAvailable()))
+                .orElseThrow(() -> new ProductNotFoundException(id)));
+    }
+
+    private static void onCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void onRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
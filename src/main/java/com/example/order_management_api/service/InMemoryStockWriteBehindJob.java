@@ -0,0 +1,44 @@
+package com.example.order_management_api.service;
+
+import com.example.order_management_api.repository.InventoryJournalRepository;
+import com.example.order_management_api.repository.InventoryJournalRepository.ProductDelta;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Write-behind for the {@code in-memory} reservation mode: drains the journal and
+ * applies the net change per product to inventories. Draining and applying share
+ * one transaction, so rows plus journal always add up to the live stock.
+ */
+@Component
+@RequiredArgsConstructor
+public class InMemoryStockWriteBehindJob {
+
+    private final InventoryJournalRepository journalRepository;
+    private final InventoryService inventoryService;
+    private final InventoryProperties properties;
+
+    @Scheduled(fixedDelayString = "${app.inventory.in-memory.flush-delay-ms:200}")
+    @Transactional
+    public void flush() {
+        if (properties.getReservationMode() != InventoryProperties.ReservationMode.IN_MEMORY) {
+            return;
+        }
+
+        List<ProductDelta> drained = journalRepository.drain(properties.getInMemory().getBatchSize());
+        if (drained.isEmpty()) return;
+
+        Map<UUID, StockDelta> deltas = new TreeMap<>();
+        for (ProductDelta line : drained) {
+            deltas.merge(line.getProductId(), new StockDelta(line.getDelta(), line.getReservedDelta()), StockDelta::plus);
+        }
+        inventoryService.applyPersistedDeltas(deltas);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.order_management_api.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.inventory")
+public class InventoryProperties {
+
+    private ReservationMode reservationMode = ReservationMode.ENTITY;
+
+    private InMemory inMemory = new InMemory();
+
+    public enum ReservationMode {
+        /**
+         * Load the cart's inventory rows with {@code SELECT ... FOR UPDATE} (in product-id
+         * order), check and decrement in Java; the {@code @Version} is bumped at flush.
+         */
+        ENTITY,
+
+        /**
+         * Decrement with a single {@code UPDATE ... WHERE available >= :quantity};
+         * concurrent buyers queue on the row lock without a read round trip.
+         */
+        CONDITIONAL_UPDATE,
+
+        /**
+         * Reserve with a CAS on counts held in memory ({@link InMemoryStock}), journal
+         * the change in the same transaction and fold the journal into inventories in
+         * the background. Single-node deployments only.
+         */
+        IN_MEMORY
+    }
+
+    @Getter
+    @Setter
+    public static class InMemory {
+
+        /** Pause between write-behind runs that fold the journal into inventories. */
+        private long flushDelayMs = 200;
+
+        /** Products drained from the journal per write-behind run. */
+        private int batchSize = 500;
+    }
+}
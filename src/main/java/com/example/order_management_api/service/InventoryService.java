@@ -1,78 +1,579 @@
 package com.example.order_management_api.service;
 
+import com.example.order_management_api.api.CursorPage;
+import com.example.order_management_api.api.InventoryResponse;
 import com.example.order_management_api.api.UpdateStockRequest;
 import com.example.order_management_api.event.model.StockAdjustedEvent;
 import com.example.order_management_api.event.publisher.DomainEventPublisher;
 import com.example.order_management_api.exception.InsufficientStockException;
+import com.example.order_management_api.exception.InvalidCursorException;
 import com.example.order_management_api.exception.OutOfStockException;
 import com.example.order_management_api.exception.ProductNotFoundException;
 import com.example.order_management_api.model.Inventory;
+import com.example.order_management_api.model.InventoryStripe;
+import com.example.order_management_api.model.Product;
+import com.example.order_management_api.repository.InventoryFilter;
 import com.example.order_management_api.repository.InventoryRepository;
+import com.example.order_management_api.repository.InventoryStripeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Single place that mutates {@link Inventory}. Methods are meant to be called
  * inside the caller's transaction (changes propagate via dirty checking).
+ * <p>
+ * A striped product keeps its stock in {@link InventoryStripe} rows instead of
+ * the inventory row; every method here hides that from callers. In the
+ * {@code in-memory} mode the live counts are in {@link InMemoryStock} and the
+ * rows catch up through {@link #applyPersistedDeltas}.
+ * <p>
+ * Reserving moves stock from available to reserved, where it stays until the
+ * order is paid ({@link #commitAll}) or cancelled or expired ({@link #releaseAll}).
  */
 @Service
 @RequiredArgsConstructor
 public class InventoryService {
 
+    private static final Logger log = LoggerFactory.getLogger(InventoryService.class);
+
+    static final int MAX_PAGE_SIZE = 500;
+
     private final InventoryRepository inventoryRepository;
+    private final InventoryStripeRepository inventoryStripeRepository;
     private final DomainEventPublisher domainEventPublisher;
     private final SimulatedProcessingDelay simulatedProcessingDelay;
+    private final InventoryProperties properties;
+    private final InMemoryStock inMemoryStock;
+    private final ProductCache productCache;
+    private final MeterRegistry meterRegistry;
 
-    public Inventory reserve(UUID productId, String productName, int quantity) {
-        Inventory inventory = getInventory(productId);
-
-        int available = inventory.getAvailable();
-        if (available < quantity) {
-            throw new OutOfStockException(productName, quantity, available);
+    /**
+     * Reserves stock for a whole cart, all-or-nothing. {@code quantities} maps product
+     * ids to the total quantity ordered; {@code products} supplies names for errors.
+     * Rows are touched in a deterministic product-id order to avoid deadlocks.
+     */
+    public void reserveAll(Map<UUID, Integer> quantities, Map<UUID, Product> products) {
+        switch (properties.getReservationMode()) {
+            case ENTITY -> reserveEntities(quantities, products);
+            case CONDITIONAL_UPDATE -> reserveConditionally(quantities, products);
+            case IN_MEMORY -> reserveInMemory(quantities, products);
         }
+        productCache.evict(quantities.keySet());
 
-        inventory.setAvailable(available - quantity);
+        simulatedProcessingDelay.apply();
+    }
+
+    /**
+     * Reserves stock for many carts in one transaction, each cart all-or-nothing.
+     * Every row involved is locked once, in product-id order, and carts are checked
+     * against the locked rows in memory, so a short cart leaves nothing behind while
+     * the others go through. Returns the failure of each cart that could not be
+     * reserved, keyed by its index; carts missing from the result are reserved.
+     */
+    public Map<Integer, RuntimeException> reserveEach(List<Map<UUID, Integer>> carts, Map<UUID, Product> products) {
+        Map<Integer, RuntimeException> failures = isInMemory()
+                ? reserveEachInMemory(carts, products)
+                : reserveEachLocked(carts, products);
+        productCache.evict(products.keySet());
 
         simulatedProcessingDelay.apply();
+        return failures;
+    }
 
-        return inventory;
+    /**
+     * Gives held stock back to available, e.g. for a cancelled or expired order.
+     * {@code quantities} maps product ids to the total quantity held. Publishes one
+     * {@link StockAdjustedEvent} per product.
+     */
+    public void releaseAll(Map<UUID, Integer> quantities) {
+        productCache.evict(quantities.keySet());
+
+        if (isInMemory()) {
+            getInventories(quantities.keySet()).forEach((productId, inventory) -> {
+                int quantity = quantities.get(productId);
+                int current = inMemoryStock.release(productId, quantity);
+
+                domainEventPublisher.publish(
+                        StockAdjustedEvent.now(productId, current - quantity, current, inventory.getTotalReserved())
+                );
+            });
+            return;
+        }
+
+        for (Inventory inventory : inventoryRepository.findAllForUpdate(quantities.keySet())) {
+            UUID productId = inventory.getProduct().getId();
+            int quantity = quantities.get(productId);
+            int previous;
+            int reserved;
+
+            if (inventory.isStriped()) {
+                List<InventoryStripe> stripes = inventoryStripeRepository.findAllForUpdate(productId);
+                previous = sumAvailable(stripes);
+                shiftReserved(productId, stripes, -quantity);
+                rebalance(productId, stripes, inventory.getStripeCount(), previous + quantity);
+                reserved = sumReserved(stripes);
+            } else {
+                previous = inventory.getAvailable();
+                inventory.setAvailable(previous + quantity);
+                inventory.setReserved(lessReserved(productId, inventory.getReserved(), quantity));
+                reserved = inventory.getReserved();
+            }
+
+            domainEventPublisher.publish(
+                    StockAdjustedEvent.now(productId, previous, previous + quantity, reserved)
+            );
+        }
     }
 
-    public void release(UUID productId, int quantity) {
+    /**
+     * Makes held stock final, e.g. for a paid order: it leaves reserved and does
+     * not come back. {@code quantities} maps product ids to the total quantity held.
+     */
+    public void commitAll(Map<UUID, Integer> quantities) {
+        productCache.evict(quantities.keySet());
+
+        if (isInMemory()) {
+            new TreeMap<>(quantities).forEach(inMemoryStock::commit);
+            return;
+        }
+
+        for (Inventory inventory : inventoryRepository.findAllForUpdate(quantities.keySet())) {
+            UUID productId = inventory.getProduct().getId();
+            int quantity = quantities.get(productId);
+
+            if (inventory.isStriped()) {
+                shiftReserved(productId, inventoryStripeRepository.findAllForUpdate(productId), -quantity);
+            } else {
+                inventory.setReserved(lessReserved(productId, inventory.getReserved(), quantity));
+            }
+        }
+    }
+
+    public Inventory adjust(UUID productId, UpdateStockRequest request) {
         Inventory inventory = getInventory(productId);
+        productCache.evict(List.of(productId));
+
+        if (isInMemory()) {
+            int previous = inMemoryStock.update(productId, current -> newAvailable(current, request));
+            int newAvailable = newAvailable(previous, request);
+            inventory.setLiveAvailable(newAvailable);
+
+            domainEventPublisher.publish(
+                    StockAdjustedEvent.now(productId, previous, newAvailable, inventory.getTotalReserved())
+            );
+            return inventory;
+        }
+
+        if (inventory.isStriped()) {
+            List<InventoryStripe> stripes = inventoryStripeRepository.findAllForUpdate(productId);
+            int previous = sumAvailable(stripes);
+            int newAvailable = newAvailable(previous, request);
+
+            rebalance(productId, stripes, inventory.getStripeCount(), newAvailable);
+            inventory.setStripedAvailable(newAvailable);
+
+            domainEventPublisher.publish(
+                    StockAdjustedEvent.now(productId, previous, newAvailable, inventory.getTotalReserved())
+            );
+            return inventory;
+        }
 
         int previous = inventory.getAvailable();
-        inventory.setAvailable(previous + quantity);
+        int newAvailable = newAvailable(previous, request);
+
+        inventory.setAvailable(newAvailable);
 
         domainEventPublisher.publish(
-                StockAdjustedEvent.now(productId, previous, inventory.getAvailable(), inventory.getReserved())
+                StockAdjustedEvent.now(productId, previous, newAvailable, inventory.getTotalReserved())
         );
+
+        return inventory;
     }
 
-    public Inventory adjust(UUID productId, UpdateStockRequest request) {
-        Inventory inventory = getInventory(productId);
+    /**
+     * Spreads a product's stock over {@code stripeCount} stripes (1 folds it back
+     * into the inventory row). The logical stock does not change.
+     */
+    public Inventory restripe(UUID productId, int stripeCount) {
+        Inventory inventory = inventoryRepository.findAllForUpdate(List.of(productId)).stream()
+                .findFirst()
+                .orElseThrow(() -> new ProductNotFoundException(productId));
+        List<InventoryStripe> stripes = inventoryStripeRepository.findAllForUpdate(productId);
 
-        int previous = inventory.getAvailable();
+        int total = inventory.getAvailable() + sumAvailable(stripes);
+        int reserved = inventory.getReserved() + sumReserved(stripes);
+
+        if (stripeCount <= 1) {
+            inventoryStripeRepository.deleteAll(stripes);
+            inventory.setAvailable(total);
+            inventory.setReserved(reserved);
+            inventory.setStripeCount(1);
+        } else {
+            List<InventoryStripe> kept = rebalance(productId, stripes, stripeCount, total);
+            shiftReserved(productId, kept, inventory.getReserved());
+            inventory.setAvailable(0);
+            inventory.setReserved(0);
+            inventory.setStripeCount(stripeCount);
+        }
+        inventory.setStripedAvailable(inventory.isStriped() ? total : 0);
+        inventory.setStripedReserved(inventory.isStriped() ? reserved : 0);
+
+        return withLiveAvailable(inventory);
+    }
+
+    /**
+     * Folds journaled stock changes into the rows (write-behind for the
+     * {@code in-memory} mode). {@code deltas} maps product ids to the net change.
+     */
+    public void applyPersistedDeltas(Map<UUID, StockDelta> deltas) {
+        // Live available comes from memory, reserved from these rows.
+        productCache.evict(deltas.keySet());
+
+        for (Inventory inventory : inventoryRepository.findAllForUpdate(deltas.keySet())) {
+            UUID productId = inventory.getProduct().getId();
+            StockDelta delta = deltas.get(productId);
+
+            if (inventory.isStriped()) {
+                List<InventoryStripe> stripes = inventoryStripeRepository.findAllForUpdate(productId);
+                List<InventoryStripe> kept = rebalance(
+                        productId, stripes, inventory.getStripeCount(), sumAvailable(stripes) + delta.available());
+                shiftReserved(productId, kept, delta.reserved());
+            } else {
+                inventory.setAvailable(inventory.getAvailable() + delta.available());
+                inventory.setReserved(lessReserved(productId, inventory.getReserved(), -delta.reserved()));
+            }
+        }
+    }
+
+    private void reserveEntities(Map<UUID, Integer> quantities, Map<UUID, Product> products) {
+        Map<UUID, Inventory> inventories = inventoryRepository.findAllUnstripedForUpdate(quantities.keySet()).stream()
+                .collect(Collectors.toMap(inv -> inv.getProduct().getId(), Function.identity()));
+
+        // Validate the locked rows before touching any of them.
+        Map<UUID, Integer> striped = new TreeMap<>();
+        quantities.forEach((productId, quantity) -> {
+            Inventory inventory = inventories.get(productId);
+            if (inventory == null) {
+                striped.put(productId, quantity);
+                return;
+            }
+            if (inventory.getAvailable() < quantity) {
+                throw new OutOfStockException(nameOf(products, productId), quantity, inventory.getAvailable());
+            }
+        });
+
+        striped.forEach((productId, quantity) ->
+                reserveStriped(productId, nameOf(products, productId), quantity));
+
+        inventories.forEach((productId, inventory) -> hold(inventory, quantities.get(productId)));
+    }
+
+    private void reserveConditionally(Map<UUID, Integer> quantities, Map<UUID, Product> products) {
+        // Each UPDATE takes its row lock immediately, so issue them in a stable order.
+        // A failure rolls back the caller's transaction, undoing earlier decrements.
+        new TreeMap<>(quantities).forEach((productId, quantity) -> {
+            if (inventoryRepository.decrementAvailable(productId, quantity) == 1) {
+                return;
+            }
+            reserveStriped(productId, nameOf(products, productId), quantity);
+        });
+    }
+
+    private Map<Integer, RuntimeException> reserveEachInMemory(List<Map<UUID, Integer>> carts, Map<UUID, Product> products) {
+        Map<Integer, RuntimeException> failures = new HashMap<>();
+        for (int i = 0; i < carts.size(); i++) {
+            try {
+                reserveInMemory(carts.get(i), products);
+            } catch (OutOfStockException | ProductNotFoundException ex) {
+                failures.put(i, ex);
+            }
+        }
+        return failures;
+    }
+
+    private Map<Integer, RuntimeException> reserveEachLocked(List<Map<UUID, Integer>> carts, Map<UUID, Product> products) {
+        Set<UUID> productIds = new TreeSet<>();
+        carts.forEach(cart -> productIds.addAll(cart.keySet()));
+
+        Map<UUID, Inventory> inventories = inventoryRepository.findAllUnstripedForUpdate(productIds).stream()
+                .collect(Collectors.toMap(inv -> inv.getProduct().getId(), Function.identity()));
+        Map<UUID, List<InventoryStripe>> stripes = new HashMap<>();
+        for (UUID productId : productIds) {
+            if (!inventories.containsKey(productId)) {
+                stripes.put(productId, inventoryStripeRepository.findAllForUpdate(productId));
+            }
+        }
+
+        Map<Integer, RuntimeException> failures = new HashMap<>();
+        for (int i = 0; i < carts.size(); i++) {
+            Map<UUID, Integer> cart = carts.get(i);
+            try {
+                // Check every line before taking anything, so a failed cart changes nothing.
+                cart.forEach((productId, quantity) -> {
+                    Inventory inventory = inventories.get(productId);
+                    int available = inventory != null ? inventory.getAvailable() : lockedStripeTotal(stripes, productId);
+                    if (available < quantity) {
+                        throw new OutOfStockException(nameOf(products, productId), quantity, available);
+                    }
+                });
+            } catch (OutOfStockException | ProductNotFoundException ex) {
+                failures.put(i, ex);
+                continue;
+            }
+
+            cart.forEach((productId, quantity) -> {
+                Inventory inventory = inventories.get(productId);
+                if (inventory != null) {
+                    hold(inventory, quantity);
+                } else {
+                    drain(stripes.get(productId), quantity);
+                }
+            });
+        }
+        return failures;
+    }
+
+    private static int lockedStripeTotal(Map<UUID, List<InventoryStripe>> stripes, UUID productId) {
+        List<InventoryStripe> productStripes = stripes.get(productId);
+        if (productStripes.isEmpty()) {
+            throw new ProductNotFoundException(productId);
+        }
+        return sumAvailable(productStripes);
+    }
+
+    private void reserveInMemory(Map<UUID, Integer> quantities, Map<UUID, Product> products) {
+        UUID failed = inMemoryStock.tryReserveAll(new TreeMap<>(quantities));
+        if (failed != null) {
+            throw new OutOfStockException(nameOf(products, failed), quantities.get(failed), inMemoryStock.available(failed));
+        }
+    }
+
+    /**
+     * Takes stock from a striped product: a random free stripe first, then any stripe
+     * with enough (waiting for its lock), then several stripes together. Falls back to
+     * reporting the inventory row when the product turns out not to be striped.
+     */
+    private void reserveStriped(UUID productId, String productName, int quantity) {
+        if (inventoryStripeRepository.decrementRandomFreeStripe(productId, quantity) == 1
+                || inventoryStripeRepository.decrementRandomStripe(productId, quantity) == 1) {
+            return;
+        }
+
+        List<InventoryStripe> stripes = inventoryStripeRepository.findAllForUpdate(productId);
+        if (stripes.isEmpty()) {
+            // Not striped: nothing updated, so only now read the row, to tell "missing" from "not enough".
+            int available = inventoryRepository.findAvailableByProductId(productId)
+                    .orElseThrow(() -> new ProductNotFoundException(productId));
+            throw new OutOfStockException(productName, quantity, available);
+        }
+
+        int total = sumAvailable(stripes);
+        if (total < quantity) {
+            throw new OutOfStockException(productName, quantity, total);
+        }
+
+        // Enough stock overall, just spread too thin.
+        drain(stripes, quantity);
+    }
+
+    private static void hold(Inventory inventory, int quantity) {
+        inventory.setAvailable(inventory.getAvailable() - quantity);
+        inventory.setReserved(inventory.getReserved() + quantity);
+    }
+
+    /** Moves {@code quantity} to reserved on locked stripes, emptying them in stripe order. */
+    private static void drain(List<InventoryStripe> stripes, int quantity) {
+        int remaining = quantity;
+        for (InventoryStripe stripe : stripes) {
+            int taken = Math.min(remaining, stripe.getAvailable());
+            stripe.setAvailable(stripe.getAvailable() - taken);
+            stripe.setReserved(stripe.getReserved() + taken);
+            remaining -= taken;
+            if (remaining == 0) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Sets stripes 0..stripeCount-1 to an even split of {@code total}, creating or dropping
+     * rows as needed. Reserved stock of dropped stripes moves to stripe 0. Returns the
+     * stripes kept, in stripe order.
+     */
+    private List<InventoryStripe> rebalance(UUID productId, List<InventoryStripe> stripes, int stripeCount, int total) {
+        List<InventoryStripe> kept = new ArrayList<>(stripes.subList(0, Math.min(stripes.size(), stripeCount)));
+        for (int i = 0; i < stripeCount; i++) {
+            int share = total / stripeCount + (i < total % stripeCount ? 1 : 0);
+            if (i < kept.size()) {
+                kept.get(i).setAvailable(share);
+            } else {
+                InventoryStripe stripe = new InventoryStripe(productId, i, share);
+                inventoryStripeRepository.save(stripe);
+                kept.add(stripe);
+            }
+        }
+        if (stripes.size() > stripeCount) {
+            List<InventoryStripe> dropped = stripes.subList(stripeCount, stripes.size());
+            shiftReserved(kept, sumReserved(dropped));
+            inventoryStripeRepository.deleteAll(dropped);
+        }
+        return kept;
+    }
+
+    /**
+     * Changes the reserved stock of locked stripes by {@code delta}: additions go to
+     * stripe 0, removals empty the stripes in stripe order and stop at zero.
+     */
+    private void shiftReserved(UUID productId, List<InventoryStripe> stripes, int delta) {
+        if (delta > 0) {
+            InventoryStripe first = stripes.getFirst();
+            first.setReserved(first.getReserved() + delta);
+            return;
+        }
+        int remaining = -delta;
+        for (InventoryStripe stripe : stripes) {
+            if (remaining == 0) {
+                break;
+            }
+            int taken = Math.min(remaining, stripe.getReserved());
+            stripe.setReserved(stripe.getReserved() - taken);
+            remaining -= taken;
+        }
+        if (remaining > 0) {
+            reservedUnderflow(productId, remaining);
+        }
+    }
+
+    /** {@code reserved} less {@code quantity}; see {@link #reservedUnderflow} for when that is below zero. */
+    private int lessReserved(UUID productId, int reserved, int quantity) {
+        if (quantity > reserved) {
+            reservedUnderflow(productId, quantity - reserved);
+            return 0;
+        }
+        return reserved - quantity;
+    }
+
+    /**
+     * More stock left reserved than was held: a hold was paid or released twice, or
+     * never reserved. That is a bug, not a race, so it is logged and counted in
+     * {@code app.inventory.reserved.underflow}; reserved stops at zero so the
+     * payment or release that found it still goes through.
+     */
+    private void reservedUnderflow(UUID productId, int shortfall) {
+        log.error("Reserved stock of product {} is {} short of the quantity held", productId, shortfall);
+        meterRegistry.counter("app.inventory.reserved.underflow").increment();
+    }
+
+    private static int newAvailable(int previous, UpdateStockRequest request) {
         int attempted = request.delta() != null ? request.delta() : request.setTo();
         int newAvailable = request.delta() != null ? previous + request.delta() : request.setTo();
 
         if (newAvailable < 0) {
             throw new InsufficientStockException(attempted, previous);
         }
+        return newAvailable;
+    }
 
-        inventory.setAvailable(newAvailable);
+    private static int sumAvailable(List<InventoryStripe> stripes) {
+        return stripes.stream().mapToInt(InventoryStripe::getAvailable).sum();
+    }
 
-        domainEventPublisher.publish(
-                StockAdjustedEvent.now(productId, previous, newAvailable, inventory.getReserved())
-        );
+    private static int sumReserved(List<InventoryStripe> stripes) {
+        return stripes.stream().mapToInt(InventoryStripe::getReserved).sum();
+    }
 
-        return inventory;
+    private String nameOf(Map<UUID, Product> products, UUID productId) {
+        Product product = products.get(productId);
+        return product != null ? product.getName() : productId.toString();
+    }
+
+    private boolean isInMemory() {
+        return properties.getReservationMode() == InventoryProperties.ReservationMode.IN_MEMORY;
     }
 
     public Inventory getInventory(UUID productId) {
-        return inventoryRepository.findByProduct_Id(productId)
+        Inventory inventory = inventoryRepository.findByProduct_Id(productId)
                 .orElseThrow(() -> new ProductNotFoundException(productId));
+        return withLiveAvailable(inventory);
+    }
+
+    /** Inventories of the given products, keyed by product id (missing ones are left out). */
+    public Map<UUID, Inventory> getInventories(Collection<UUID> productIds) {
+        return inventoryRepository.findByProduct_IdIn(productIds).stream()
+                .map(this::withLiveAvailable)
+                .collect(Collectors.toMap(inv -> inv.getProduct().getId(), Function.identity()));
+    }
+
+    /**
+     * One page of inventories matching {@code filter}, by product id. {@code cursor} is
+     * the last product id of the previous page (null for the first); {@code limit} is
+     * capped at {@value #MAX_PAGE_SIZE}. In the {@code in-memory} mode the rows show the
+     * live counts, but {@code lowStock} filters on the columns, which lag behind them.
+     */
+    public CursorPage<InventoryResponse> listInventories(InventoryFilter filter, String cursor, int limit) {
+        UUID after = cursor != null ? decodeCursor(cursor) : null;
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+
+        // One extra row tells whether there is a next page.
+        List<InventoryResponse> rows = inventoryRepository.findPage(filter, after, pageSize + 1).stream()
+                .map(this::withLiveAvailable)
+                .toList();
+
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        rows = rows.subList(0, pageSize);
+        return new CursorPage<>(rows, rows.getLast().productId().toString());
+    }
+
+    private static UUID decodeCursor(String cursor) {
+        try {
+            return UUID.fromString(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    /** The live available count in the {@code in-memory} mode, where the rows lag behind; empty otherwise. */
+    public OptionalInt liveAvailable(UUID productId) {
+        return isInMemory() ? OptionalInt.of(inMemoryStock.available(productId)) : OptionalInt.empty();
+    }
+
+    private Inventory withLiveAvailable(Inventory inventory) {
+        if (isInMemory()) {
+            inventory.setLiveAvailable(inMemoryStock.available(inventory.getProduct().getId()));
+        }
+        return inventory;
+    }
+
+    private InventoryResponse withLiveAvailable(InventoryResponse inventory) {
+        if (!isInMemory()) {
+            return inventory;
+        }
+        return new InventoryResponse(
+                inventory.id(),
+                inventory.productId(),
+                inventory.productName(),
+                inMemoryStock.available(inventory.productId()),
+                inventory.reserved(),
+                inventory.version(),
+                inventory.stripes()
+        );
     }
 }
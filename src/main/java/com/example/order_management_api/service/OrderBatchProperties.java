@@ -0,0 +1,20 @@
+package com.example.order_management_api.service;
+
+import jakarta.validation.constraints.Min;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+@Getter
+@Setter
+@Validated
+@Component
+@ConfigurationProperties(prefix = "app.order.batch")
+public class OrderBatchProperties {
+
+    /** Orders of a batch placed per transaction. */
+    @Min(1)
+    private int chunkSize = 100;
+}
@@ -0,0 +1,21 @@
+package com.example.order_management_api.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.order.hold")
+public class OrderHoldProperties {
+
+    /** How long a placed order holds its stock before an unpaid order is cancelled. */
+    private Duration ttl = Duration.ofMinutes(15);
+
+    /** Expired orders cancelled per sweeper transaction. */
+    private int batchSize = 500;
+}
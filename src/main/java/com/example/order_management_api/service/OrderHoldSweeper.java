@@ -0,0 +1,65 @@
+package com.example.order_management_api.service;
+
+import com.example.order_management_api.event.model.OrderCancelledEvent;
+import com.example.order_management_api.event.publisher.DomainEventPublisher;
+import com.example.order_management_api.repository.OrderRepository;
+import com.example.order_management_api.repository.OrderRepository.ProductQuantity;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Cancels orders left unpaid past their stock hold and gives the stock back.
+ * Works in sets, not per order: one UPDATE cancels a batch of expired orders, one
+ * query sums their lines per product, and the release touches each product once,
+ * publishing one {@code StockAdjustedEvent} per product however many orders held it.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderHoldSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderHoldSweeper.class);
+
+    private final OrderRepository orderRepository;
+    private final InventoryService inventoryService;
+    private final DomainEventPublisher domainEventPublisher;
+    private final ConflictRetryExecutor conflictRetryExecutor;
+    private final OrderHoldProperties properties;
+
+    @Scheduled(fixedDelayString = "${app.order.hold.sweep-delay-ms:5000}")
+    public void sweep() {
+        int total = 0;
+        int expired;
+        do {
+            expired = conflictRetryExecutor.inTransaction("order.expire-holds", this::expireBatch);
+            total += expired;
+        } while (expired == properties.getBatchSize());
+
+        if (total > 0) {
+            log.info("Cancelled {} orders with expired stock holds", total);
+        }
+    }
+
+    /** Cancels one batch of expired orders in the caller's transaction; returns how many. */
+    private int expireBatch() {
+        List<UUID> expired = orderRepository.cancelExpiredHolds(Instant.now(), properties.getBatchSize());
+        if (expired.isEmpty()) return 0;
+
+        Map<UUID, Integer> quantities = new TreeMap<>();
+        for (ProductQuantity line : orderRepository.sumQuantitiesByProduct(expired)) {
+            quantities.put(line.getProductId(), Math.toIntExact(line.getQuantity()));
+        }
+        inventoryService.releaseAll(quantities);
+
+        expired.forEach(orderId -> domainEventPublisher.publish(OrderCancelledEvent.now(orderId)));
+        return expired.size();
+    }
+}
@@ -2,19 +2,26 @@ package com.example.order_management_api.service;
 
 import com.example.order_management_api.api.CreateOrderItemRequest;
 import com.example.order_management_api.api.CreateOrderRequest;
+import com.example.order_management_api.api.CursorPage;
+import com.example.order_management_api.api.OrderBatchResult;
+import com.example.order_management_api.api.OrderCursor;
 import com.example.order_management_api.api.OrderResponse;
+import com.example.order_management_api.api.OrderSummaryResponse;
 import com.example.order_management_api.event.model.OrderCancelledEvent;
 import com.example.order_management_api.event.model.OrderCreatedEvent;
 import com.example.order_management_api.event.model.OrderPaidEvent;
 import com.example.order_management_api.event.publisher.DomainEventPublisher;
+import com.example.order_management_api.exception.InactiveProductException;
 import com.example.order_management_api.exception.OrderAccessDeniedException;
 import com.example.order_management_api.exception.OrderNotFoundException;
+import com.example.order_management_api.exception.ProductNotFoundException;
 import com.example.order_management_api.mapper.OrderMapper;
 import com.example.order_management_api.model.Order;
 import com.example.order_management_api.model.OrderItem;
 import com.example.order_management_api.model.OrderStatus;
 import com.example.order_management_api.model.Product;
 import com.example.order_management_api.model.User;
+import com.example.order_management_api.repository.OrderFilter;
 import com.example.order_management_api.repository.OrderRepository;
 import com.example.order_management_api.repository.UserRepository;
 import com.example.order_management_api.security.CurrentUser;
@@ -22,9 +29,19 @@ import com.example.order_management_api.service.validation.OrderValidator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
@@ -36,16 +53,138 @@ public class OrderService {
     private final OrderValidator orderValidator;
     private final InventoryService inventoryService;
     private final OrderMapper orderMapper;
+    private final ConflictRetryExecutor conflictRetryExecutor;
+    private final OrderHoldProperties holdProperties;
+    private final OrderBatchProperties batchProperties;
 
-    @Transactional
+    static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * Places an order in its own transaction, retried on concurrency conflicts
+     * (see {@link ConflictRetryExecutor}).
+     */
     public OrderResponse createOrder(CreateOrderRequest request, CurrentUser currentUser) {
+        return conflictRetryExecutor.inTransaction("order.create", () -> placeOrder(request, currentUser));
+    }
+
+    private OrderResponse placeOrder(CreateOrderRequest request, CurrentUser currentUser) {
         User user = userRepository.findById(currentUser.id()).orElseThrow();
-        Order order = Order.newOrder(user);
+        Map<UUID, Integer> quantities = quantitiesOf(request);
+
+        // One query for the products, one for the inventories, whatever the cart size.
+        Map<UUID, Product> products = orderValidator.validateOrderable(quantities.keySet());
+        inventoryService.reserveAll(quantities, products);
+
+        // Persist order + items and stock changes atomically.
+        Order saved = orderRepository.saveAndFlush(buildOrder(user, request, products));
+
+        domainEventPublisher.publish(OrderCreatedEvent.now(saved.getId(), saved.getCustomerEmail()));
+
+        return orderMapper.toResponse(saved);
+    }
+
+    /**
+     * Places many orders for the current user. Orders are processed in chunks of
+     * {@code app.order.batch.chunk-size}, one transaction (retried on conflicts) per
+     * chunk; a failing order does not affect the others. Results come back in
+     * request order. Chunks commit independently, so an error in a later chunk
+     * leaves earlier ones placed. Inside an existing transaction everything joins it.
+     */
+    public List<OrderBatchResult> createOrders(List<CreateOrderRequest> requests, CurrentUser currentUser) {
+        List<OrderBatchResult> results = new ArrayList<>(requests.size());
+        int batchChunkSize = batchProperties.getChunkSize();
+
+        for (int from = 0; from < requests.size(); from += batchChunkSize) {
+            List<CreateOrderRequest> chunk = requests.subList(from, Math.min(from + batchChunkSize, requests.size()));
+            int offset = from;
+            try {
+                results.addAll(conflictRetryExecutor.inTransaction(
+                        "order.create-batch", () -> placeChunk(chunk, offset, currentUser)));
+            } catch (RuntimeException ex) {
+                // Inside a caller's transaction the failure has doomed it: let the caller retry.
+                if (!ConflictRetryExecutor.isConflict(ex) || TransactionSynchronizationManager.isActualTransactionActive()) {
+                    throw ex;
+                }
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(OrderBatchResult.failed(offset + i, 409, "Concurrent update detected. Please retry."));
+                }
+            }
+        }
+        return results;
+    }
+
+    private List<OrderBatchResult> placeChunk(List<CreateOrderRequest> chunk, int offset, CurrentUser currentUser) {
+        User user = userRepository.findById(currentUser.id()).orElseThrow();
+        List<Map<UUID, Integer>> carts = chunk.stream().map(OrderService::quantitiesOf).toList();
 
+        // Products and inventory rows are looked up once for the whole chunk.
+        Set<UUID> productIds = new HashSet<>();
+        carts.forEach(cart -> productIds.addAll(cart.keySet()));
+        Map<UUID, Product> products = orderValidator.findProducts(productIds);
+
+        OrderBatchResult[] results = new OrderBatchResult[chunk.size()];
+        List<Integer> orderable = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            try {
+                orderValidator.validateOrderable(carts.get(i).keySet(), products);
+                orderable.add(i);
+            } catch (ProductNotFoundException | InactiveProductException ex) {
+                results[i] = failed(offset + i, ex);
+            }
+        }
+
+        Map<Integer, RuntimeException> stockFailures = inventoryService.reserveEach(
+                orderable.stream().map(carts::get).toList(), products);
+
+        Map<Integer, Order> orders = new LinkedHashMap<>();
+        for (int j = 0; j < orderable.size(); j++) {
+            int i = orderable.get(j);
+            RuntimeException failure = stockFailures.get(j);
+            if (failure != null) {
+                results[i] = failed(offset + i, failure);
+            } else {
+                orders.put(i, buildOrder(user, chunk.get(i), products));
+            }
+        }
+
+        // Inserts of orders, items and outbox rows go out as JDBC batches at flush.
+        orderRepository.saveAll(orders.values());
+        orders.values().forEach(order ->
+                domainEventPublisher.publish(OrderCreatedEvent.now(order.getId(), order.getCustomerEmail())));
+        orderRepository.flush();
+
+        orders.forEach((i, order) -> results[i] = OrderBatchResult.created(offset + i, orderMapper.toResponse(order)));
+        return Arrays.asList(results);
+    }
+
+    private static OrderBatchResult failed(int index, RuntimeException ex) {
+        int status = ex instanceof ProductNotFoundException ? 404 : 409;
+        return OrderBatchResult.failed(index, status, ex.getMessage());
+    }
+
+    /** Total quantity per product; the same product may appear on several lines. */
+    private static Map<UUID, Integer> quantitiesOf(CreateOrderRequest request) {
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
         for (CreateOrderItemRequest item : request.items()) {
-            Product product = orderValidator.validateOrderable(item.productId());
-            inventoryService.reserve(item.productId(), product.getName(), item.quantity());
+            quantities.merge(item.productId(), item.quantity(), Integer::sum);
+        }
+        return quantities;
+    }
 
+    /** Total quantity per product held by an order. */
+    private static Map<UUID, Integer> heldQuantitiesOf(Order order) {
+        Map<UUID, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : order.getItems()) {
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+
+    private Order buildOrder(User user, CreateOrderRequest request, Map<UUID, Product> products) {
+        Order order = Order.newOrder(user);
+        order.holdStockUntil(order.getCreatedAt().plus(holdProperties.getTtl()));
+        for (CreateOrderItemRequest item : request.items()) {
+            Product product = products.get(item.productId());
             order.addItem(new OrderItem(
                     product.getId(),
                     product.getName(),
@@ -53,13 +192,7 @@ public class OrderService {
                     item.quantity()
             ));
         }
-
-        // Persist order + items and stock changes atomically.
-        Order saved = orderRepository.saveAndFlush(order);
-
-        domainEventPublisher.publish(OrderCreatedEvent.now(saved.getId(), saved.getCustomerEmail()));
-
-        return orderMapper.toResponse(saved);
+        return order;
     }
 
     @Transactional(readOnly = true)
@@ -67,29 +200,90 @@ public class OrderService {
         return orderMapper.toResponse(findOrderAuthorized(id, currentUser));
     }
 
+    /**
+     * Entity tag of {@link #getOrder}, from one lookup of owner and status. Items and
+     * customer never change and holdExpiresAt only changes with the status, and a
+     * status is never entered twice, so the status alone tells versions apart.
+     */
     @Transactional(readOnly = true)
-    public List<OrderResponse> listOrders(OrderStatus status) {
-        List<Order> orders = status == null
-                ? orderRepository.findAll()
-                : orderRepository.findByStatus(status);
+    public String getOrderVersionTag(UUID id, CurrentUser currentUser) {
+        OrderRepository.OrderVersion version = orderRepository.findVersionById(id)
+                .orElseThrow(() -> new OrderNotFoundException(id));
+        checkAccess(id, version.getOwnerId(), currentUser);
+        return version.getStatus().name();
+    }
 
-        return orders.stream()
-                .map(orderMapper::toResponse)
-                .toList();
+    /**
+     * One page of orders matching {@code filter}, newest first. {@code cursor} is the
+     * token of the previous page (null for the first); {@code limit} is capped at
+     * {@value #MAX_PAGE_SIZE}.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderResponse> listOrders(OrderFilter filter, String cursor, int limit) {
+        CursorPage<Order> page = fetchPage(cursor, limit,
+                (afterCreatedAt, afterId, size) -> orderRepository.findPage(filter, afterCreatedAt, afterId, size),
+                order -> new OrderCursor(order.getCreatedAt(), order.getId()));
+        loadItems(page.items());
+
+        return page.map(orderMapper::toResponse);
+    }
+
+    /** The current user's orders, paged like {@link #listOrders}, optionally of one status. */
+    @Transactional(readOnly = true)
+    public CursorPage<OrderResponse> listMyOrders(CurrentUser currentUser, OrderStatus status, String cursor, int limit) {
+        return listOrders(OrderFilter.ofUser(currentUser.id(), status), cursor, limit);
     }
 
+    /**
+     * The current user's orders as summaries, without items: one index-only query
+     * per page, for list views that open an order for its details.
+     */
     @Transactional(readOnly = true)
-    public List<OrderResponse> listMyOrders(CurrentUser currentUser) {
-        return orderRepository.findByUser_Id(currentUser.id()).stream()
-                .map(orderMapper::toResponse)
-                .toList();
+    public CursorPage<OrderSummaryResponse> listMyOrderSummaries(CurrentUser currentUser, OrderStatus status, String cursor, int limit) {
+        OrderFilter filter = OrderFilter.ofUser(currentUser.id(), status);
+        return fetchPage(cursor, limit,
+                (afterCreatedAt, afterId, size) -> orderRepository.findSummaryPage(filter, afterCreatedAt, afterId, size),
+                summary -> new OrderCursor(summary.createdAt(), summary.id()));
+    }
+
+    private static <T> CursorPage<T> fetchPage(String cursor, int limit, PageFetcher<T> fetcher, Function<T, OrderCursor> position) {
+        OrderCursor after = cursor != null ? OrderCursor.decode(cursor) : null;
+        int pageSize = Math.clamp(limit, 1, MAX_PAGE_SIZE);
+
+        // One extra row tells whether there is a next page.
+        List<T> rows = fetcher.fetch(
+                after != null ? after.createdAt() : null,
+                after != null ? after.id() : null,
+                pageSize + 1);
+
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        rows = rows.subList(0, pageSize);
+        return new CursorPage<>(rows, position.apply(rows.getLast()).encode());
+    }
+
+    @FunctionalInterface
+    private interface PageFetcher<T> {
+        List<T> fetch(Instant afterCreatedAt, UUID afterId, int limit);
+    }
+
+    /**
+     * Initializes the items of {@code orders} with one query. The page itself cannot
+     * fetch-join them: a row limit on a collection fetch would be applied in memory.
+     */
+    private void loadItems(List<Order> orders) {
+        if (!orders.isEmpty()) {
+            orderRepository.findWithItemsByIdIn(orders.stream().map(Order::getId).toList());
+        }
     }
 
     @Transactional
     public OrderResponse payOrder(UUID id, CurrentUser currentUser) {
-        Order order = findOrderAuthorized(id, currentUser);
+        Order order = lockOrderAuthorized(id, currentUser);
 
         order.pay();
+        inventoryService.commitAll(heldQuantitiesOf(order));
 
         domainEventPublisher.publish(OrderPaidEvent.now(order.getId()));
 
@@ -98,13 +292,10 @@ public class OrderService {
 
     @Transactional
     public OrderResponse cancelOrder(UUID id, CurrentUser currentUser) {
-        Order order = findOrderAuthorized(id, currentUser);
+        Order order = lockOrderAuthorized(id, currentUser);
 
         order.cancel();
-
-        for (OrderItem item : order.getItems()) {
-            inventoryService.release(item.getProductId(), item.getQuantity());
-        }
+        inventoryService.releaseAll(heldQuantitiesOf(order));
 
         domainEventPublisher.publish(OrderCancelledEvent.now(order.getId()));
 
@@ -112,8 +303,16 @@ public class OrderService {
     }
 
     private Order findOrderAuthorized(UUID id, CurrentUser currentUser) {
-        Order order = orderRepository.findById(id)
-                .orElseThrow(() -> new OrderNotFoundException(id));
+        return authorize(orderRepository.findById(id), id, currentUser);
+    }
+
+    /** Like {@link #findOrderAuthorized}, but row-locks the order against the hold sweeper. */
+    private Order lockOrderAuthorized(UUID id, CurrentUser currentUser) {
+        return authorize(orderRepository.findByIdForUpdate(id), id, currentUser);
+    }
+
+    private static Order authorize(Optional<Order> found, UUID id, CurrentUser currentUser) {
+        Order order = found.orElseThrow(() -> new OrderNotFoundException(id));
 
         if (!currentUser.isAdmin() && !order.isOwnedBy(currentUser.id())) {
             throw new OrderAccessDeniedException(id);
@@ -121,4 +320,10 @@ public class OrderService {
 
         return order;
     }
+
+    private static void checkAccess(UUID id, UUID ownerId, CurrentUser currentUser) {
+        if (!currentUser.isAdmin() && !currentUser.id().equals(ownerId)) {
+            throw new OrderAccessDeniedException(id);
+        }
+    }
 }
@@ -0,0 +1,112 @@
+package com.example.order_management_api.service;
+
+import com.example.order_management_api.api.ProductResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Local cache of the public catalog reads: single products by id and the product
+ * lists of {@code GET /products}. Bounded by size and TTL, with hit/miss metrics
+ * under {@code cache.*} (caches {@code products} and {@code product-lists}).
+ * <p>
+ * Writers call {@link #evict} inside their transaction; entries are dropped once it
+ * completes. Caffeine makes an invalidation wait for a load of the same key in
+ * progress, so a value read before the commit cannot be stored after it. Other nodes
+ * evict on the product events they receive. Single products are also checked against
+ * their version tag; the TTL bounds what is left, i.e. lists.
+ */
+@Component
+public class ProductCache {
+
+    private final Cache<UUID, Versioned> products;
+    private final Cache<Listing, List<ProductResponse>> lists;
+
+    public ProductCache(ProductCacheProperties properties, MeterRegistry meterRegistry) {
+        this.products = Caffeine.newBuilder()
+                .maximumSize(properties.getSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        // One entry per value of the active filter.
+        this.lists = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, products, "products");
+        CaffeineCacheMetrics.monitor(meterRegistry, lists, "product-lists");
+    }
+
+    /**
+     * The cached product if it was loaded at {@code versionTag}, else a fresh load.
+     * The tag catches what eviction misses, such as a reservation on another node,
+     * so a 200 never pairs an entity tag with an older body.
+     */
+    public ProductResponse get(UUID productId, String versionTag, Supplier<ProductResponse> loader) {
+        Function<UUID, Versioned> load = _ -> new Versioned(versionTag, loader.get());
+
+        Versioned cached = products.get(productId, load);
+        if (cached.versionTag().equals(versionTag)) {
+            return cached.response();
+        }
+        products.asMap().remove(productId, cached);
+        Versioned reloaded = products.get(productId, load);
+        // Still another version: a concurrent request cached its own; do not fight over the entry.
+        return reloaded.versionTag().equals(versionTag) ? reloaded.response() : loader.get();
+    }
+
+    public List<ProductResponse> list(Boolean active, Supplier<List<ProductResponse>> loader) {
+        return lists.get(Listing.of(active), _ -> loader.get());
+    }
+
+    /**
+     * Drops the given products and every list, after the current transaction
+     * completes (right away outside one). An empty collection only drops the lists,
+     * e.g. for a new product.
+     */
+    public void evict(Collection<UUID> productIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(productIds);
+            return;
+        }
+        List<UUID> ids = List.copyOf(productIds);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                invalidate(ids);
+            }
+        });
+    }
+
+    private void invalidate(Collection<UUID> productIds) {
+        products.invalidateAll(productIds);
+        // Key by key rather than invalidateAll(): only single-key invalidation waits for a load in progress.
+        for (Listing listing : Listing.values()) {
+            lists.invalidate(listing);
+        }
+    }
+
+    private record Versioned(String versionTag, ProductResponse response) {
+    }
+
+    private enum Listing {
+        ALL, ACTIVE, INACTIVE;
+
+        static Listing of(Boolean active) {
+            if (active == null) {
+                return ALL;
+            }
+            return active ? ACTIVE : INACTIVE;
+        }
+    }
+}
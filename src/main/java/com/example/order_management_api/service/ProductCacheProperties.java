@@ -0,0 +1,24 @@
+package com.example.order_management_api.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "app.product.cache")
+public class ProductCacheProperties {
+
+    /** Products kept in the local cache. */
+    private int size = 10_000;
+
+    /**
+     * Upper bound on staleness for changes this node is not told about: reservations
+     * and payments on other nodes publish no product event.
+     */
+    private Duration ttl = Duration.ofSeconds(30);
+}
@@ -5,6 +5,7 @@ import com.example.order_management_api.api.ProductResponse;
 import com.example.order_management_api.api.UpdateProductRequest;
 import com.example.order_management_api.api.UpdateStockRequest;
 import com.example.order_management_api.event.model.ProductCreatedEvent;
+import com.example.order_management_api.event.model.ProductUpdatedEvent;
 import com.example.order_management_api.event.model.StockAdjustedEvent;
 import com.example.order_management_api.event.publisher.DomainEventPublisher;
 import com.example.order_management_api.exception.ProductNotFoundException;
@@ -13,15 +14,17 @@ import com.example.order_management_api.model.Inventory;
 import com.example.order_management_api.model.Product;
 import com.example.order_management_api.repository.InventoryRepository;
 import com.example.order_management_api.repository.ProductRepository;
+import com.example.order_management_api.repository.ProductRepository.ProductVersion;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalInt;
 import java.util.UUID;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -32,6 +35,8 @@ public class ProductService {
     private final InventoryRepository inventoryRepository;
     private final InventoryService inventoryService;
     private final ProductMapper productMapper;
+    private final ConflictRetryExecutor conflictRetryExecutor;
+    private final ProductCache productCache;
 
     @Transactional
     public ProductResponse createProduct(CreateProductRequest request) {
@@ -47,27 +52,50 @@ public class ProductService {
         inventoryRepository.saveAndFlush(inventory);
 
         domainEventPublisher.publish(ProductCreatedEvent.now(saved.getId(), saved.getName(), saved.getPrice()));
-        domainEventPublisher.publish(StockAdjustedEvent.now(saved.getId(), 0, inventory.getAvailable(), inventory.getReserved()));
+        domainEventPublisher.publish(StockAdjustedEvent.now(saved.getId(), 0, inventory.getAvailable(), inventory.getTotalReserved()));
+        productCache.evict(List.of());
 
         return productMapper.toResponse(saved, inventory);
     }
 
-    @Transactional(readOnly = true)
-    public ProductResponse getProduct(UUID id) {
-        return productMapper.toResponse(findProduct(id), inventoryService.getInventory(id));
+    /**
+     * Entity tag of {@link #getProduct}, from one indexed lookup that loads no entity.
+     * In the {@code in-memory} mode the live count is part of it, since the versions
+     * only move when the rows catch up.
+     */
+    public String getVersionTag(UUID id) {
+        ProductVersion version = productRepository.findVersionById(id)
+                .orElseThrow(() -> new ProductNotFoundException(id));
+
+        String tag = ChronoUnit.MICROS.between(Instant.EPOCH, version.getUpdatedAt())
+                + "-" + version.getInventoryVersion()
+                + "-" + version.getStripeVersion();
+        OptionalInt live = inventoryService.liveAvailable(id);
+        return live.isPresent() ? tag + "-" + live.getAsInt() : tag;
+    }
+
+    /**
+     * The product as of {@code versionTag} (see {@link #getVersionTag}), served from
+     * {@link ProductCache}. Not transactional, so that a hit does not take a
+     * connection; a miss reads the product and its stock in two short queries.
+     */
+    public ProductResponse getProduct(UUID id, String versionTag) {
+        return productCache.get(id, versionTag, () -> productMapper.toResponse(findProduct(id), inventoryService.getInventory(id)));
     }
 
-    @Transactional(readOnly = true)
+    /** Served from {@link ProductCache}; lists are not versioned and rely on eviction. */
     public List<ProductResponse> listProducts(Boolean active) {
+        return productCache.list(active, () -> loadProducts(active));
+    }
+
+    private List<ProductResponse> loadProducts(Boolean active) {
         List<Product> products = active == null
                 ? productRepository.findAll()
                 : productRepository.findByActive(active);
 
         // Fetch all inventories in one query instead of one per product.
-        Map<UUID, Inventory> inventoriesByProductId = inventoryRepository
-                .findByProduct_IdIn(products.stream().map(Product::getId).toList())
-                .stream()
-                .collect(Collectors.toMap(inv -> inv.getProduct().getId(), Function.identity()));
+        Map<UUID, Inventory> inventoriesByProductId = inventoryService
+                .getInventories(products.stream().map(Product::getId).toList());
 
         return products.stream()
                 .map(p -> {
@@ -94,13 +122,21 @@ public class ProductService {
             product.setActive(request.active());
         }
 
+        domainEventPublisher.publish(ProductUpdatedEvent.now(id, product.getName(), product.getPrice(), product.isActive()));
+        productCache.evict(List.of(id));
+
         return productMapper.toResponse(product, inventoryService.getInventory(id));
     }
 
-    @Transactional
+    /**
+     * Adjusts stock in its own transaction, retried when a concurrent reservation
+     * wins the version check (see {@link ConflictRetryExecutor}).
+     */
     public ProductResponse updateStock(UUID productId, UpdateStockRequest request) {
-        Inventory inventory = inventoryService.adjust(productId, request);
-        return productMapper.toResponse(inventory.getProduct(), inventory);
+        return conflictRetryExecutor.inTransaction("inventory.adjust", () -> {
+            Inventory inventory = inventoryService.adjust(productId, request);
+            return productMapper.toResponse(inventory.getProduct(), inventory);
+        });
     }
 
     private Product findProduct(UUID id) {
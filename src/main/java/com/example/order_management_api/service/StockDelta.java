@@ -0,0 +1,11 @@
+package com.example.order_management_api.service;
+
+/**
+ * Net change of a product's available and reserved stock.
+ */
+public record StockDelta(int available, int reserved) {
+
+    public StockDelta plus(StockDelta other) {
+        return new StockDelta(available + other.available, reserved + other.reserved);
+    }
+}
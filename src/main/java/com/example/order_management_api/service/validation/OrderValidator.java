@@ -7,7 +7,11 @@ import com.example.order_management_api.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
 @RequiredArgsConstructor
@@ -16,17 +20,32 @@ public class OrderValidator {
     private final ProductRepository productRepository;
 
     /**
-     * Ensures the product can be ordered: it exists and is active.
-     * Returns the product so callers can snapshot its name and price.
+     * Ensures every product of a cart can be ordered: it exists and is active. Loads
+     * all products in one query and checks them in the given order. Returns the
+     * products keyed by id so callers can snapshot their names and prices.
      */
-    public Product validateOrderable(UUID productId) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ProductNotFoundException(productId));
+    public Map<UUID, Product> validateOrderable(Collection<UUID> productIds) {
+        Map<UUID, Product> products = findProducts(productIds);
+        validateOrderable(productIds, products);
+        return products;
+    }
 
-        if (!product.isActive()) {
-            throw new InactiveProductException(productId);
-        }
+    /** Loads the products in one query, keyed by id; missing ones are simply absent. */
+    public Map<UUID, Product> findProducts(Collection<UUID> productIds) {
+        return productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
 
-        return product;
+    /** Checks a cart against products loaded up front (e.g. shared by a whole batch of orders). */
+    public void validateOrderable(Collection<UUID> productIds, Map<UUID, Product> products) {
+        for (UUID productId : productIds) {
+            Product product = products.get(productId);
+            if (product == null) {
+                throw new ProductNotFoundException(productId);
+            }
+            if (!product.isActive()) {
+                throw new InactiveProductException(productId);
+            }
+        }
     }
 }
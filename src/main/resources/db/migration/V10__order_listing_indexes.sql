@@ -0,0 +1,6 @@
+-- Keyset pagination of GET /orders: newest first on (created_at, id), with optional
+-- status and customer filters. Each index serves one filter shape as a backward
+-- range scan that starts at the cursor, however deep the page.
+create index idx_orders_created_at_id on orders (created_at, id);
+create index idx_orders_status_created_at_id on orders (status, created_at, id);
+create index idx_orders_customer_email_created_at_id on orders (customer_email, created_at, id);
@@ -0,0 +1,3 @@
+-- Items are read per order (list pages, hold sweeper, export join); without this index
+-- every lookup scanned order_items.
+create index idx_order_items_order_id on order_items (order_id);
@@ -0,0 +1,5 @@
+-- GET /orders/my pages a user's orders newest first. V3 added user_id without an index,
+-- so every page scanned and sorted the whole history. The included columns make the
+-- summary view an index-only scan.
+create index idx_orders_user_id_created_at_id on orders (user_id, created_at desc, id desc)
+    include (status, hold_expires_at);
@@ -0,0 +1,27 @@
+-- Order counts, items and revenue per day (of order creation, UTC) and current status,
+-- kept up to date from the ORDER outbox events by OrderSummaryProjector.
+create table order_summary (
+    day date not null,
+    status varchar(255) not null,
+    orders bigint not null,
+    items bigint not null,
+    revenue numeric(19,2) not null,
+    constraint order_summary_pkey primary key (day, status)
+);
+
+-- Like published_at for Kafka: set once an event is folded into order_summary.
+alter table outbox_events add column projected_at timestamp(6) with time zone;
+
+-- Existing orders are counted by the initial build below, not through their events.
+update outbox_events set projected_at = now() where aggregate_type = 'ORDER';
+
+insert into order_summary (day, status, orders, items, revenue)
+select (o.created_at at time zone 'UTC')::date, o.status, count(*), sum(t.items), sum(t.revenue)
+  from orders o
+  join (select order_id, sum(quantity) as items, sum(quantity * unit_price_at_purchase) as revenue
+          from order_items
+         group by order_id) t on t.order_id = o.id
+ group by 1, 2;
+
+create index idx_outbox_unprojected on outbox_events (occurred_at)
+    where projected_at is null and aggregate_type = 'ORDER';
@@ -0,0 +1,5 @@
+-- GET /inventory?lowStock=N finds the products running out. Plain rows are found on
+-- their available column; striped rows keep 0 there and are summed from their stripes,
+-- so they get their own (small) index and the two are combined with a bitmap OR.
+create index idx_inventories_available on inventories (available, product_id) where stripe_count = 1;
+create index idx_inventories_striped on inventories (product_id) where stripe_count > 1;
@@ -0,0 +1,5 @@
+-- Publishers claim the oldest unpublished events and check each claimed aggregate for
+-- an earlier unpublished event. Both only look at the unpublished tail, which these
+-- partial indexes keep small however many events have been published.
+create index idx_outbox_unpublished on outbox_events (occurred_at, id) where published_at is null;
+create index idx_outbox_unpublished_aggregate on outbox_events (aggregate_id, occurred_at, id) where published_at is null;
@@ -0,0 +1,12 @@
+-- payload_json was an oid (Hibernate's mapping of @Lob String): every event created a
+-- large object, written and read in extra round trips, and deleting an event row left
+-- its large object behind in pg_largeobject. The payload now sits inline as jsonb.
+alter table outbox_events add column payload jsonb;
+
+update outbox_events set payload = convert_from(lo_get(payload_json), 'UTF8')::jsonb;
+
+select count(lo_unlink(payload_json)) from outbox_events;
+
+alter table outbox_events drop column payload_json;
+alter table outbox_events rename column payload to payload_json;
+alter table outbox_events alter column payload_json set not null;
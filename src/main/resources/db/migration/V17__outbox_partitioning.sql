@@ -0,0 +1,58 @@
+-- outbox_events becomes range-partitioned by day of occurred_at (UTC). Published events
+-- are then removed by dropping whole old partitions (OutboxPartitionMaintenance) rather
+-- than by deleting rows, and the publisher skips the partitions that are fully published.
+-- Postgres requires the partition key in the primary key, hence (id, occurred_at).
+alter table outbox_events rename to outbox_events_unpartitioned;
+
+create table outbox_events (
+    id uuid not null,
+    aggregate_type varchar(255) not null,
+    aggregate_id uuid not null,
+    type varchar(255) not null,
+    payload_json jsonb not null,
+    occurred_at timestamp(6) with time zone not null,
+    created_at timestamp(6) with time zone not null,
+    published_at timestamp(6) with time zone,
+    projected_at timestamp(6) with time zone
+) partition by range (occurred_at);
+
+-- Catches anything outside the daily partitions; normally empty.
+create table outbox_events_default partition of outbox_events default;
+
+-- One partition per day from the oldest event to a week ahead; the maintenance job
+-- keeps creating the days ahead from then on.
+do $$
+declare
+    d date;
+begin
+    for d in
+        select generate_series(
+                   coalesce((select min(occurred_at at time zone 'UTC')::date from outbox_events_unpartitioned),
+                            (now() at time zone 'UTC')::date),
+                   (now() at time zone 'UTC')::date + 7,
+                   interval '1 day')::date
+    loop
+        execute format('create table %I partition of outbox_events for values from (%L) to (%L)',
+                       'outbox_events_p' || to_char(d, 'YYYYMMDD'),
+                       d::timestamp at time zone 'UTC',
+                       (d + 1)::timestamp at time zone 'UTC');
+    end loop;
+end $$;
+
+insert into outbox_events (id, aggregate_type, aggregate_id, type, payload_json,
+                           occurred_at, created_at, published_at, projected_at)
+select id, aggregate_type, aggregate_id, type, payload_json,
+       occurred_at, created_at, published_at, projected_at
+  from outbox_events_unpartitioned;
+
+drop table outbox_events_unpartitioned;
+
+alter table outbox_events add constraint outbox_events_pkey primary key (id, occurred_at);
+
+-- idx_outbox_published_at is not recreated: only the unpublished tail is ever looked up,
+-- and the partial indexes below cover it.
+create index idx_outbox_occurred_at on outbox_events (occurred_at);
+create index idx_outbox_unpublished on outbox_events (occurred_at, id) where published_at is null;
+create index idx_outbox_unpublished_aggregate on outbox_events (aggregate_id, occurred_at, id) where published_at is null;
+create index idx_outbox_unprojected on outbox_events (occurred_at)
+    where projected_at is null and aggregate_type = 'ORDER';
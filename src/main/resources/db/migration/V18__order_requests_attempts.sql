@@ -0,0 +1,4 @@
+-- Times a worker has tried to place the request. A batch that keeps failing counts an
+-- attempt against each of its rows, and rows that run out of attempts are failed
+-- instead of holding the head of the queue forever.
+alter table order_requests add column attempts integer not null default 0;
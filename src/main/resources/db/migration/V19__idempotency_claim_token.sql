@@ -0,0 +1,4 @@
+-- Identifies the request holding a claim. A request whose lease expired may still be
+-- running after another took the key over; its release or completion must then match
+-- nothing instead of touching the new holder's claim.
+alter table idempotency_keys add column claim_token uuid;
@@ -0,0 +1,14 @@
+-- An event the broker keeps refusing is dead-lettered once it has failed
+-- app.outbox.publisher.max-send-failures sends: claims skip it, later events of its
+-- aggregate go out without it, and it no longer keeps its partition hot or undroppable.
+-- It stays in the table for inspection until its partition is dropped.
+alter table outbox_events add column send_failures integer not null default 0;
+alter table outbox_events add column dead_lettered_at timestamp(6) with time zone;
+
+-- The unpublished tail no longer includes dead letters.
+drop index idx_outbox_unpublished;
+drop index idx_outbox_unpublished_aggregate;
+create index idx_outbox_unpublished on outbox_events (occurred_at, id)
+    where published_at is null and dead_lettered_at is null;
+create index idx_outbox_unpublished_aggregate on outbox_events (aggregate_id, occurred_at, id)
+    where published_at is null and dead_lettered_at is null;
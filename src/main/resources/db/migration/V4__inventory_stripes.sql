@@ -0,0 +1,13 @@
+-- Opt-in striping for hot SKUs: a striped product's stock lives in N inventory_stripes rows
+-- (inventories.available is then 0), so concurrent reservations spread over N row locks.
+alter table inventories add column stripe_count integer not null default 1;
+
+create table inventory_stripes (
+    product_id uuid not null,
+    stripe integer not null,
+    available integer not null,
+    version bigint not null default 0,
+    constraint inventory_stripes_pkey primary key (product_id, stripe),
+    constraint fk_inventory_stripes_product foreign key (product_id) references products (id),
+    constraint inventory_stripes_available_check check (available >= 0)
+);
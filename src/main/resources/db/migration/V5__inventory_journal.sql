@@ -0,0 +1,14 @@
+-- Write-behind journal for the in-memory reservation mode. Every stock change is appended
+-- here in the same transaction as the business change; a background job folds the rows
+-- into inventories and deletes them. Live stock = inventories (+ stripes) + sum(journal).
+create sequence inventory_journal_seq start with 1 increment by 50;
+
+create table inventory_journal (
+    id bigint not null,
+    product_id uuid not null,
+    delta integer not null,
+    created_at timestamp(6) with time zone not null,
+    constraint inventory_journal_pkey primary key (id)
+);
+
+create index idx_inventory_journal_product_id on inventory_journal (product_id);
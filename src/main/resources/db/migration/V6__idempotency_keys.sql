@@ -0,0 +1,15 @@
+-- Idempotency-Key support: one row per (user, key). A row without a response is a claim
+-- held by the request executing it; the response is stored once that request succeeds.
+create table idempotency_keys (
+    user_id uuid not null,
+    idempotency_key varchar(255) not null,
+    request_hash varchar(64) not null,
+    response_status integer,
+    response_location varchar(255),
+    response_body text,
+    claimed_at timestamp(6) with time zone not null,
+    completed_at timestamp(6) with time zone,
+    constraint idempotency_keys_pkey primary key (user_id, idempotency_key)
+);
+
+create index idx_idempotency_keys_claimed_at on idempotency_keys (claimed_at);
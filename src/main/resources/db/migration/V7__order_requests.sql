@@ -0,0 +1,19 @@
+-- Durable queue for asynchronously accepted orders (POST /orders with Prefer: respond-async).
+-- Workers take PENDING rows with FOR UPDATE SKIP LOCKED and settle them in the same
+-- transaction that places the order, so a request is never placed twice.
+create table order_requests (
+    id uuid not null,
+    user_id uuid not null,
+    payload text not null,
+    status varchar(20) not null,
+    order_id uuid,
+    error_status integer,
+    error_message text,
+    created_at timestamp(6) with time zone not null,
+    completed_at timestamp(6) with time zone,
+    constraint order_requests_pkey primary key (id),
+    constraint fk_order_requests_user foreign key (user_id) references users (id)
+);
+
+create index idx_order_requests_pending on order_requests (created_at) where status = 'PENDING';
+create index idx_order_requests_completed_at on order_requests (completed_at);
@@ -0,0 +1,10 @@
+-- order_items ids come from a pooled sequence instead of an identity column: Hibernate
+-- must know an id before the INSERT to send order lines as one JDBC batch. Each
+-- nextval reserves a block of 50 ids.
+create sequence order_items_seq start with 1 increment by 50;
+
+-- Hibernate's pooled optimizer hands out (value - 49 .. value), so the first value
+-- must clear existing ids by a whole block.
+select setval('order_items_seq', coalesce((select max(id) from order_items), 0) + 50, false);
+
+alter table order_items alter column id drop identity if exists;
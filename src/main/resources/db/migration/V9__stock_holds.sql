@@ -0,0 +1,35 @@
+-- Stock holds: placing an order moves stock from available to reserved until the order
+-- is paid (reserved goes down) or cancelled / expired (it goes back to available).
+-- Striped products keep their reserved stock on the stripes, like their available stock.
+alter table orders add column hold_expires_at timestamp(6) with time zone;
+
+alter table inventory_stripes add column reserved integer not null default 0;
+alter table inventory_stripes add constraint inventory_stripes_reserved_check check (reserved >= 0);
+
+alter table inventory_journal add column reserved_delta integer not null default 0;
+
+-- Orders placed before holds existed keep a null hold_expires_at: they were never
+-- promised an expiry, so the sweeper leaves them alone and they are paid or
+-- cancelled as before. Their stock is already out of available; account for it as reserved.
+update inventories i
+   set reserved = held.quantity
+  from (select oi.product_id, sum(oi.quantity) as quantity
+          from order_items oi
+          join orders o on o.id = oi.order_id
+         where o.status = 'CREATED'
+         group by oi.product_id) held
+ where held.product_id = i.product_id
+   and i.stripe_count = 1;
+
+update inventory_stripes s
+   set reserved = held.quantity
+  from (select oi.product_id, sum(oi.quantity) as quantity
+          from order_items oi
+          join orders o on o.id = oi.order_id
+         where o.status = 'CREATED'
+         group by oi.product_id) held
+ where held.product_id = s.product_id
+   and s.stripe = 0;
+
+-- The sweeper only ever looks at unpaid orders, oldest hold first.
+create index idx_orders_hold_expires_at on orders (hold_expires_at) where status = 'CREATED';
@@ -0,0 +1,115 @@
+package com.example.order_management_api;
+
+import com.example.order_management_api.exception.IdempotencyKeyInProgressException;
+import com.example.order_management_api.idempotency.IdempotencyRecordRepository;
+import com.example.order_management_api.idempotency.IdempotencyService;
+import com.example.order_management_api.model.Role;
+import com.example.order_management_api.security.CurrentUser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The action's writes and the stored response commit together: there is no moment
+ * where the work is committed but the key still looks unanswered.
+ */
+class IdempotencyIntegrationTest extends PostgresTestBase {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    IdempotencyService idempotencyService;
+
+    @Autowired
+    IdempotencyRecordRepository repository;
+
+    private final CurrentUser user = new CurrentUser(UUID.randomUUID(), "idempotency@test.com", Role.USER);
+
+    @BeforeEach
+    void createTable() {
+        jdbcTemplate.execute("create table if not exists idempotency_test_writes (id uuid primary key)");
+    }
+
+    @AfterEach
+    void dropTable() {
+        jdbcTemplate.execute("drop table if exists idempotency_test_writes");
+    }
+
+    private int writes() {
+        Integer count = jdbcTemplate.queryForObject("select count(*) from idempotency_test_writes", Integer.class);
+        return count != null ? count : 0;
+    }
+
+    private Integer responseStatus(String key) {
+        return jdbcTemplate.query("select response_status from idempotency_keys where user_id = ? and idempotency_key = ?",
+                rs -> rs.next() ? (Integer) rs.getObject(1) : null, user.id(), key);
+    }
+
+    @Test
+    void shouldCommitTheActionAndItsResponseTogether() {
+        String key = UUID.randomUUID().toString();
+
+        ResponseEntity<String> response = idempotencyService.execute(key, user, "test.write", "request", String.class, () -> {
+            jdbcTemplate.update("insert into idempotency_test_writes (id) values (?)", UUID.randomUUID());
+            return ResponseEntity.ok("written");
+        });
+
+        assertThat(response.getBody()).isEqualTo("written");
+        assertThat(writes()).isEqualTo(1);
+        assertThat(responseStatus(key)).isEqualTo(200);
+    }
+
+    @Test
+    void shouldRollBackTheActionWhenItsResponseCannotBeStored() {
+        String key = UUID.randomUUID().toString();
+
+        // The key gets completed underneath the action, as when a request outlives its lease.
+        assertThatThrownBy(() -> idempotencyService.execute(key, user, "test.write", "request", String.class, () -> {
+            jdbcTemplate.update("insert into idempotency_test_writes (id) values (?)", UUID.randomUUID());
+            jdbcTemplate.update("update idempotency_keys set response_status = 200 where user_id = ? and idempotency_key = ?",
+                    user.id(), key);
+            return ResponseEntity.ok("written");
+        })).isInstanceOf(IdempotencyKeyInProgressException.class);
+
+        assertThat(writes()).isZero();
+        // Nothing was stored, so the claim is released for a retry.
+        assertThat(responseStatus(key)).isNull();
+    }
+
+    @Test
+    void shouldKeepATakenOverClaimAwayFromItsFormerHolder() {
+        String key = UUID.randomUUID().toString();
+        UUID staleToken = UUID.randomUUID();
+        // Request A claimed the key long ago and overran its lease.
+        jdbcTemplate.update("""
+                        insert into idempotency_keys (user_id, idempotency_key, request_hash, claim_token, claimed_at)
+                        values (?, ?, 'stale', ?, now() - interval '1 hour')
+                        """, user.id(), key, staleToken);
+        AtomicInteger releasedByA = new AtomicInteger();
+
+        // Request B takes the key over; A fails and releases while B is running.
+        ResponseEntity<String> response = idempotencyService.execute(key, user, "test.write", "request", String.class, () -> {
+            releasedByA.set(repository.release(user.id(), key, staleToken));
+            jdbcTemplate.update("insert into idempotency_test_writes (id) values (?)", UUID.randomUUID());
+            return ResponseEntity.ok("written");
+        });
+        // A finishing late cannot overwrite B's response either.
+        int completedByA = repository.complete(user.id(), key, staleToken, 201, null, "\"late\"");
+
+        assertThat(releasedByA).hasValue(0);
+        assertThat(completedByA).isZero();
+        assertThat(response.getBody()).isEqualTo("written");
+        assertThat(writes()).isEqualTo(1);
+        assertThat(responseStatus(key)).isEqualTo(200);
+    }
+}
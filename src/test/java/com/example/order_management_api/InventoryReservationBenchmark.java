@@ -0,0 +1,120 @@
+package com.example.order_management_api;
+
+import com.example.order_management_api.api.CreateProductRequest;
+import com.example.order_management_api.api.ProductResponse;
+import com.example.order_management_api.model.Product;
+import com.example.order_management_api.repository.InventoryRepository;
+import com.example.order_management_api.repository.ProductRepository;
+import com.example.order_management_api.service.InMemoryStockWriteBehindJob;
+import com.example.order_management_api.service.InventoryProperties;
+import com.example.order_management_api.service.InventoryProperties.ReservationMode;
+import com.example.order_management_api.service.InventoryService;
+import com.example.order_management_api.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stress benchmark of the reservation modes against a real Postgres: many threads
+ * reserving one unit of the same product, each in its own transaction.
+ * Excluded from {@code test}; run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class InventoryReservationBenchmark extends PostgresTestBase {
+
+    private static final int THREADS = 16;
+    private static final int RESERVATIONS_PER_THREAD = 250;
+    private static final int STOCK = THREADS * RESERVATIONS_PER_THREAD;
+
+    @Autowired
+    private InventoryProperties properties;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InMemoryStockWriteBehindJob writeBehindJob;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void restoreMode() {
+        properties.setReservationMode(ReservationMode.ENTITY);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ReservationMode.class)
+    void reserveHotProduct(ReservationMode mode) throws Exception {
+        properties.setReservationMode(mode);
+        ProductResponse created = productService.createProduct(
+                new CreateProductRequest("Bench-" + mode, BigDecimal.TEN, STOCK, true));
+        Product product = productRepository.findById(created.id()).orElseThrow();
+        Map<UUID, Product> products = Map.of(product.getId(), product);
+
+        long[] latencies = new long[STOCK];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+
+        long began;
+        try (ExecutorService pool = Executors.newFixedThreadPool(THREADS)) {
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t * RESERVATIONS_PER_THREAD;
+                workers.add(pool.submit(() -> {
+                    assertThat(start.await(5, TimeUnit.SECONDS)).isTrue();
+                    for (int i = 0; i < RESERVATIONS_PER_THREAD; i++) {
+                        long t0 = System.nanoTime();
+                        transactionTemplate.executeWithoutResult(_ ->
+                                inventoryService.reserveAll(Map.of(product.getId(), 1), products));
+                        latencies[offset + i] = System.nanoTime() - t0;
+                    }
+                    return null;
+                }));
+            }
+            began = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(5, TimeUnit.MINUTES);
+            }
+        }
+        long elapsed = System.nanoTime() - began;
+
+        if (mode == ReservationMode.IN_MEMORY) {
+            writeBehindJob.flush();
+        }
+        assertThat(inventoryRepository.findAvailableByProductId(product.getId())).contains(0);
+
+        Arrays.sort(latencies);
+        System.out.printf("%-18s %8.0f reservations/s  p50 %7.1f us  p99 %8.1f us%n",
+                mode,
+                STOCK / (elapsed / 1e9),
+                latencies[STOCK / 2] / 1e3,
+                latencies[STOCK * 99 / 100] / 1e3);
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.order_management_api;
+
+import com.example.order_management_api.api.CreateOrderItemRequest;
+import com.example.order_management_api.api.CreateOrderRequest;
+import com.example.order_management_api.api.CreateProductRequest;
+import com.example.order_management_api.api.ProductResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestPropertySource(properties = "app.inventory.reservation-mode=conditional-update")
+class OrderConditionalReservationIntegrationTest extends PostgresTestBase {
+
+    private static final int BUYERS = 20;
+    private static final int STOCK = 5;
+
+    @LocalServerPort
+    int port;
+
+    private RestClient restClient;
+    private RestClient adminClient;
+
+    private RestClient client() {
+        if (restClient == null) {
+            restClient = RestClient.builder()
+                    .baseUrl("http://localhost:" + port)
+                    .build();
+        }
+        return restClient;
+    }
+
+    private RestClient admin() {
+        if (adminClient == null) {
+            String token = AuthTestSupport.loginAdmin(client());
+            adminClient = RestClient.builder()
+                    .baseUrl("http://localhost:" + port)
+                    .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                    .build();
+        }
+        return adminClient;
+    }
+
+    private RestClient newBuyer() {
+        String email = "buyer-" + UUID.randomUUID() + "@test.com";
+        String token = AuthTestSupport.registerAndLogin(client(), email, "password123");
+        return RestClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .build();
+    }
+
+    @Test
+    void shouldSellExactlyTheAvailableStockWithoutVersionConflicts() throws Exception {
+        // given: a hot product with little stock
+        ProductResponse product = admin()
+                .post()
+                .uri("/products")
+                .body(new CreateProductRequest("Console", BigDecimal.valueOf(499), STOCK, true))
+                .retrieve()
+                .body(ProductResponse.class);
+        assertThat(product).isNotNull();
+
+        CreateOrderRequest orderRequest = new CreateOrderRequest(
+                List.of(new CreateOrderItemRequest(product.id(), 1))
+        );
+
+        // authenticate before racing so login is not part of the measured window
+        List<RestClient> buyers = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            buyers.add(newBuyer());
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<HttpStatus>> results = new ArrayList<>();
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(BUYERS)) {
+            for (RestClient buyer : buyers) {
+                results.add(pool.submit(() -> {
+                    assertThat(start.await(5, TimeUnit.SECONDS)).isTrue();
+                    return (HttpStatus) buyer
+                            .post()
+                            .uri("/orders")
+                            .body(orderRequest)
+                            .exchange((_, res) -> res.getStatusCode());
+                }));
+            }
+            start.countDown();
+
+            List<HttpStatus> statuses = new ArrayList<>();
+            for (Future<HttpStatus> result : results) {
+                statuses.add(result.get(30, TimeUnit.SECONDS));
+            }
+
+            // then: every unit is sold exactly once, everybody else gets a 409
+            assertThat(statuses).filteredOn(s -> s == HttpStatus.CREATED).hasSize(STOCK);
+            assertThat(statuses).filteredOn(s -> s == HttpStatus.CONFLICT).hasSize(BUYERS - STOCK);
+        }
+
+        ProductResponse after = client()
+                .get()
+                .uri("/products/" + product.id())
+                .retrieve()
+                .body(ProductResponse.class);
+
+        assertThat(after).isNotNull();
+        assertThat(after.available()).isZero();
+    }
+}
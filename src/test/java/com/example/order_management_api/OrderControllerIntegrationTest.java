@@ -1,8 +1,16 @@
 package com.example.order_management_api;
 
 import com.example.order_management_api.api.*;
+import com.example.order_management_api.event.model.DomainEvent;
 import com.example.order_management_api.event.publisher.DomainEventPublisher;
 import com.example.order_management_api.exception.ErrorResponse;
+import com.example.order_management_api.intake.OrderRequestStatus;
+import com.example.order_management_api.model.OrderStatus;
+import com.example.order_management_api.model.User;
+import com.example.order_management_api.repository.UserRepository;
+import com.example.order_management_api.security.CurrentUser;
+import com.example.order_management_api.service.OrderHoldSweeper;
+import com.example.order_management_api.service.OrderService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,11 +22,21 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.RestClient;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -37,6 +55,21 @@ class OrderControllerIntegrationTest extends PostgresTestBase {
     @Qualifier("recordingDomainEventPublisher")
     TestDomainEventPublisher recordingPublisher;
 
+    @Autowired
+    OrderHoldSweeper orderHoldSweeper;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    OrderService orderService;
+
+    @Autowired
+    UserRepository userRepository;
+
     private RestClient client() {
         if (plainClient == null) {
             plainClient = RestClient.builder()
@@ -107,6 +140,11 @@ class OrderControllerIntegrationTest extends PostgresTestBase {
     }
 
 
+    /** Waits out {@code app.order.export.settle-time}, after which recent orders are exported. */
+    private static void waitForOrdersToSettle() throws InterruptedException {
+        Thread.sleep(Duration.ofSeconds(2).plusMillis(100));
+    }
+
     @BeforeEach
     void beforeEach() {
         recordingPublisher.clear();
@@ -151,6 +189,8 @@ class OrderControllerIntegrationTest extends PostgresTestBase {
 
         assertThat(productAfter).isNotNull();
         assertThat(productAfter.available()).isEqualTo(8);
+        assertThat(productAfter.reserved()).isEqualTo(2);
+        assertThat(order.holdExpiresAt()).isAfter(order.createdAt());
     }
 
     @Test
@@ -170,6 +210,161 @@ class OrderControllerIntegrationTest extends PostgresTestBase {
         assertThat(status).isEqualTo(HttpStatus.UNAUTHORIZED);
     }
 
+    @Test
+    void shouldPlaceBatchWithPerOrderResults() {
+        // given: 3 in stock, and a batch wanting 2 + 2 + (unknown product) + 1
+        UUID productId = createProductAndGetId("Milk", 3.99, 3);
+        UUID unknownId = UUID.randomUUID();
+
+        CreateOrderBatchRequest batch = new CreateOrderBatchRequest(List.of(
+                new CreateOrderRequest(List.of(new CreateOrderItemRequest(productId, 2))),
+                new CreateOrderRequest(List.of(new CreateOrderItemRequest(productId, 2))),
+                new CreateOrderRequest(List.of(new CreateOrderItemRequest(unknownId, 1))),
+                new CreateOrderRequest(List.of(new CreateOrderItemRequest(productId, 1)))
+        ));
+
+        // when
+        OrderBatchResult[] results = user()
+                .post()
+                .uri("/orders/batch")
+                .body(batch)
+                .retrieve()
+                .body(OrderBatchResult[].class);
+
+        // then: each order succeeds or fails on its own, in request order
+        assertThat(results).isNotNull();
+        assertThat(results).extracting(OrderBatchResult::index).containsExactly(0, 1, 2, 3);
+        assertThat(results).extracting(OrderBatchResult::status).containsExactly(201, 409, 404, 201);
+        assertThat(results[0].order().customerEmail()).isEqualTo(userEmail);
+        assertThat(results[1].error()).contains("requested = 2, available = 1");
+
+        ProductResponse productAfter = client()
+                .get()
+                .uri("/products/" + productId)
+                .retrieve()
+                .body(ProductResponse.class);
+
+        assertThat(productAfter).isNotNull();
+        assertThat(productAfter.available()).isZero();
+    }
+
+    @Test
+    void shouldReplayOrderForRepeatedIdempotencyKey() {
+        // given
+        UUID productId = createProductAndGetId("Milk", 3.99, 10);
+        String key = UUID.randomUUID().toString();
+
+        CreateOrderRequest request = new CreateOrderRequest(
+                List.of(new CreateOrderItemRequest(productId, 2))
+        );
+
+        // when: the client retries the same request
+        ResponseEntity<OrderResponse> first = user()
+                .post()
+                .uri("/orders")
+                .header("Idempotency-Key", key)
+                .body(request)
+                .retrieve()
+                .toEntity(OrderResponse.class);
+
+        ResponseEntity<OrderResponse> retry = user()
+                .post()
+                .uri("/orders")
+                .header("Idempotency-Key", key)
+                .body(request)
+                .retrieve()
+                .toEntity(OrderResponse.class);
+
+        // then: one order, replayed as-is, stock taken once
+        assertThat(first.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(retry.getHeaders().getFirst("Idempotent-Replayed")).isEqualTo("true");
+        assertThat(retry.getHeaders().getLocation()).isEqualTo(first.getHeaders().getLocation());
+        assertThat(retry.getBody()).isNotNull();
+        assertThat(retry.getBody().id()).isEqualTo(first.getBody().id());
+
+        ProductResponse productAfter = client()
+                .get()
+                .uri("/products/" + productId)
+                .retrieve()
+                .body(ProductResponse.class);
+
+        assertThat(productAfter).isNotNull();
+        assertThat(productAfter.available()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldReturn422WhenIdempotencyKeyIsReusedForDifferentRequest() {
+        UUID productId = createProductAndGetId("Milk", 3.99, 10);
+        String key = UUID.randomUUID().toString();
+
+        user().post()
+                .uri("/orders")
+                .header("Idempotency-Key", key)
+                .body(new CreateOrderRequest(List.of(new CreateOrderItemRequest(productId, 1))))
+                .retrieve()
+                .toBodilessEntity();
+
+        HttpStatus status = (HttpStatus) user()
+                .post()
+                .uri("/orders")
+                .header("Idempotency-Key", key)
+                .body(new CreateOrderRequest(List.of(new CreateOrderItemRequest(productId, 5))))
+                .exchange((req, res) -> res.getStatusCode());
+
+        assertThat(status).isEqualTo(HttpStatus.UNPROCESSABLE_CONTENT);
+    }
+
+    @Test
+    void shouldAcceptOrderAsynchronouslyAndPlaceItLater() throws InterruptedException {
+        // given
+        UUID productId = createProductAndGetId("Milk", 3.99, 10);
+
+        CreateOrderRequest request = new CreateOrderRequest(
+                List.of(new CreateOrderItemRequest(productId, 2))
+        );
+
+        // when
+        ResponseEntity<OrderRequestResponse> accepted = user()
+                .post()
+                .uri("/orders")
+                .header("Prefer", "respond-async")
+                .body(request)
+                .retrieve()
+                .toEntity(OrderRequestResponse.class);
+
+        // then: queued, with a status resource to poll
+        assertThat(accepted.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+        assertThat(accepted.getHeaders().getLocation()).isNotNull();
+
+        OrderRequestResponse status = null;
+        for (int i = 0; i < 100; i++) {
+            status = user()
+                    .get()
+                    .uri(accepted.getHeaders().getLocation().toString())
+                    .retrieve()
+                    .body(OrderRequestResponse.class);
+            if (status != null && status.status() != OrderRequestStatus.PENDING) {
+                break;
+            }
+            Thread.sleep(100);
+        }
+
+        assertThat(status).isNotNull();
+        assertThat(status.status()).isEqualTo(OrderRequestStatus.COMPLETED);
+        assertThat(status.order()).isNotNull();
+        assertThat(status.order().customerEmail()).isEqualTo(userEmail);
+
+        ProductResponse productAfter = client()
+                .get()
+                .uri("/products/" + productId)
+                .retrieve()
+                .body(ProductResponse.class);
+
+        assertThat(productAfter).isNotNull();
+        assertThat(productAfter.available()).isEqualTo(8);
+    }
+
     @Test
     void shouldReturn404WhenOrderNotFound() {
         UUID randomId = UUID.randomUUID();
@@ -206,6 +401,195 @@ class OrderControllerIntegrationTest extends PostgresTestBase {
         assertThat(response[0].status().name()).isEqualTo("CREATED");
     }
 
+    @Test
+    void shouldPageOrdersWithCursor() {
+        // given: three orders of one customer
+        UUID productId = createProductAndGetId("Bread", 2.50, 10);
+        CreateOrderRequest request = new CreateOrderRequest(List.of(new CreateOrderItemRequest(productId, 1)));
+        List<UUID> placed = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            placed.add(user().post().uri("/orders").body(request).retrieve().body(OrderResponse.class).id());
+        }
+
+        // when: paging through them two at a time
+        ResponseEntity<OrderResponse[]> first = admin()
+                .get()
+                .uri("/orders?customer={customer}&limit=2", userEmail)
+                .retrieve()
+                .toEntity(OrderResponse[].class);
+        String cursor = first.getHeaders().getFirst("X-Next-Cursor");
+
+        ResponseEntity<OrderResponse[]> second = admin()
+                .get()
+                .uri("/orders?customer={customer}&limit=2&cursor={cursor}", userEmail, cursor)
+                .retrieve()
+                .toEntity(OrderResponse[].class);
+
+        // then: newest first, nothing skipped or repeated, no cursor after the last page
+        assertThat(cursor).isNotNull();
+        assertThat(first.getBody()).hasSize(2);
+        assertThat(second.getBody()).hasSize(1);
+        assertThat(second.getHeaders().getFirst("X-Next-Cursor")).isNull();
+        assertThat(Stream.concat(Arrays.stream(first.getBody()), Arrays.stream(second.getBody())))
+                .extracting(OrderResponse::id)
+                .containsExactlyElementsOf(placed.reversed());
+    }
+
+    @Test
+    void shouldReturn400ForMalformedCursor() {
+        HttpStatus status = (HttpStatus) admin()
+                .get()
+                .uri("/orders?cursor=not-a-cursor")
+                .exchange((req, res) -> res.getStatusCode());
+
+        assertThat(status).isEqualTo(HttpStatus.BAD_REQUEST);
+    }
+
+    @Test
+    void shouldExportOrdersSinceWatermarkAsNdjsonAndCsv() throws InterruptedException {
+        UUID productId = createProductAndGetId("Export, Special", 2.50, 10);
+        CreateOrderRequest request = new CreateOrderRequest(List.of(new CreateOrderItemRequest(productId, 2)));
+        OrderResponse order = user().post().uri("/orders").body(request).retrieve().body(OrderResponse.class);
+        assertThat(order).isNotNull();
+        Instant since = order.createdAt().minusSeconds(1);
+        waitForOrdersToSettle();
+
+        ResponseEntity<String> ndjson = admin()
+                .get()
+                .uri("/orders/export?since={since}", since)
+                .retrieve()
+                .toEntity(String.class);
+        String csv = admin()
+                .get()
+                .uri("/orders/export?since={since}&format=csv", since)
+                .retrieve()
+                .body(String.class);
+
+        assertThat(ndjson.getHeaders().getContentType()).hasToString("application/x-ndjson;charset=UTF-8");
+        assertThat(ndjson.getBody()).isNotNull();
+        assertThat(ndjson.getBody().lines())
+                .allMatch(line -> line.startsWith("{\"id\":") && line.endsWith("]}"))
+                .filteredOn(line -> line.contains(order.id().toString()))
+                .singleElement()
+                .satisfies(line -> assertThat(line)
+                        .contains("\"status\":\"CREATED\"")
+                        .contains("\"productName\":\"Export, Special\",\"quantity\":2,\"unitPriceAtPurchase\":2.50"));
+
+        assertThat(csv).isNotNull();
+        assertThat(csv.lines().findFirst()).contains(
+                "order_id,customer_email,status,created_at,product_id,product_name,quantity,unit_price");
+        assertThat(csv.lines().filter(line -> line.startsWith(order.id().toString())))
+                .singleElement()
+                .satisfies(line -> assertThat(line).endsWith(productId + ",\"Export, Special\",2,2.50"));
+    }
+
+    @Test
+    void shouldResumeExportRightAfterTheLastOrderReceived() throws InterruptedException {
+        UUID productId = createProductAndGetId("Export Resume", 1.00, 10);
+        CreateOrderRequest request = new CreateOrderRequest(List.of(new CreateOrderItemRequest(productId, 1)));
+        OrderResponse first = user().post().uri("/orders").body(request).retrieve().body(OrderResponse.class);
+        OrderResponse second = user().post().uri("/orders").body(request).retrieve().body(OrderResponse.class);
+        assertThat(first).isNotNull();
+        assertThat(second).isNotNull();
+        waitForOrdersToSettle();
+
+        String ndjson = admin()
+                .get()
+                .uri("/orders/export?since={since}&after={after}", first.createdAt(), first.id())
+                .retrieve()
+                .body(String.class);
+
+        assertThat(ndjson).isNotNull()
+                .doesNotContain(first.id().toString())
+                .contains(second.id().toString());
+    }
+
+    @Test
+    void shouldExportAnOrderThatCommitsBehindANewerOneOnTheNextPull() throws InterruptedException {
+        // Separate products, so the open checkout does not hold up the newer order's reservation.
+        CreateOrderRequest lateRequest = new CreateOrderRequest(
+                List.of(new CreateOrderItemRequest(createProductAndGetId("Export Late", 1.00, 10), 1)));
+        CreateOrderRequest newerRequest = new CreateOrderRequest(
+                List.of(new CreateOrderItemRequest(createProductAndGetId("Export Newer", 1.00, 10), 1)));
+        user();
+        User buyer = userRepository.findByEmail(userEmail).orElseThrow();
+        CurrentUser currentUser = new CurrentUser(buyer.getId(), buyer.getEmail(), buyer.getRole());
+        CountDownLatch placed = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        AtomicReference<OrderResponse> late = new AtomicReference<>();
+
+        // The late order is stamped first but its transaction stays open past the first pull.
+        Thread slowCheckout = Thread.ofVirtual().start(() -> transactionTemplate.executeWithoutResult(_ -> {
+            late.set(orderService.createOrder(lateRequest, currentUser));
+            placed.countDown();
+            try {
+                commit.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        placed.await();
+        OrderResponse newer = user().post().uri("/orders").body(newerRequest).retrieve().body(OrderResponse.class);
+        assertThat(newer).isNotNull();
+
+        ResponseEntity<String> firstPull = admin()
+                .get()
+                .uri("/orders/export?since={since}", late.get().createdAt().minusSeconds(1))
+                .retrieve()
+                .toEntity(String.class);
+        commit.countDown();
+        slowCheckout.join();
+        waitForOrdersToSettle();
+
+        String until = firstPull.getHeaders().getFirst("X-Export-Until");
+        assertThat(until).isNotNull();
+        String secondPull = admin()
+                .get()
+                .uri("/orders/export?since={since}", until)
+                .retrieve()
+                .body(String.class);
+
+        // Neither had settled at the first pull, so the newer order did not move the watermark past the late one.
+        assertThat(Objects.toString(firstPull.getBody(), ""))
+                .doesNotContain(late.get().id().toString(), newer.id().toString());
+        assertThat(secondPull).isNotNull()
+                .contains(late.get().id().toString())
+                .contains(newer.id().toString());
+    }
+
+    @Test
+    void shouldForbidExportForRegularUser() {
+        HttpStatus status = (HttpStatus) user()
+                .get()
+                .uri("/orders/export")
+                .exchange((req, res) -> res.getStatusCode());
+
+        assertThat(status).isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    void shouldAnswerUnchangedOrderWith304UntilItIsPaid() {
+        UUID orderId = createOrderAndGetId();
+        String eTag = user().get().uri("/orders/" + orderId)
+                .retrieve().toEntity(OrderResponse.class)
+                .getHeaders().getETag();
+
+        HttpStatus unchanged = (HttpStatus) user().get().uri("/orders/" + orderId)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange((req, res) -> res.getStatusCode());
+
+        user().post().uri("/orders/" + orderId + "/pay").retrieve().toBodilessEntity();
+        ResponseEntity<OrderResponse> paid = user().get().uri("/orders/" + orderId)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .retrieve().toEntity(OrderResponse.class);
+
+        assertThat(unchanged).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(paid.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(paid.getHeaders().getETag()).isNotEqualTo(eTag);
+        assertThat(paid.getBody()).isNotNull();
+        assertThat(paid.getBody().status()).isEqualTo(OrderStatus.PAID);
+    }
+
     @Test
     void shouldListOwnOrders() {
         UUID orderId = createOrderAndGetId();
@@ -221,6 +605,50 @@ class OrderControllerIntegrationTest extends PostgresTestBase {
         assertThat(myOrders).allMatch(o -> o.customerEmail().equals(userEmail));
     }
 
+    @Test
+    void shouldPageOwnOrdersAndFilterSummariesByStatus() {
+        // given: three orders, the oldest one paid
+        UUID productId = createProductAndGetId("Jam", 4.00, 10);
+        CreateOrderRequest request = new CreateOrderRequest(List.of(new CreateOrderItemRequest(productId, 1)));
+        List<UUID> placed = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            placed.add(user().post().uri("/orders").body(request).retrieve().body(OrderResponse.class).id());
+        }
+        user().post().uri("/orders/" + placed.getFirst() + "/pay").retrieve().toBodilessEntity();
+
+        // when: paging own orders two at a time, and listing unpaid summaries
+        ResponseEntity<OrderResponse[]> first = user()
+                .get()
+                .uri("/orders/my?limit=2")
+                .retrieve()
+                .toEntity(OrderResponse[].class);
+        String cursor = first.getHeaders().getFirst("X-Next-Cursor");
+        ResponseEntity<OrderResponse[]> second = user()
+                .get()
+                .uri("/orders/my?limit=2&cursor={cursor}", cursor)
+                .retrieve()
+                .toEntity(OrderResponse[].class);
+        OrderSummaryResponse[] unpaid = user()
+                .get()
+                .uri("/orders/my/summary?status=CREATED")
+                .retrieve()
+                .body(OrderSummaryResponse[].class);
+
+        // then
+        assertThat(cursor).isNotNull();
+        assertThat(second.getHeaders().getFirst("X-Next-Cursor")).isNull();
+        assertThat(Stream.concat(Arrays.stream(first.getBody()), Arrays.stream(second.getBody())))
+                .extracting(OrderResponse::id)
+                .containsExactlyElementsOf(placed.reversed());
+        assertThat(unpaid)
+                .extracting(OrderSummaryResponse::id)
+                .containsExactly(placed.get(2), placed.get(1));
+        assertThat(unpaid).allSatisfy(o -> {
+            assertThat(o.status()).isEqualTo(OrderStatus.CREATED);
+            assertThat(o.holdExpiresAt()).isNotNull();
+        });
+    }
+
     @Test
     void shouldSnapshotPriceAtPurchase() {
         UUID productId = createProductAndGetId("Milk", 3.99, 10);
@@ -315,6 +743,41 @@ class OrderControllerIntegrationTest extends PostgresTestBase {
 
         assertThat(afterCancel).isNotNull();
         assertThat(afterCancel.available()).isEqualTo(10);
+        assertThat(afterCancel.reserved()).isZero();
+    }
+
+    @Test
+    void shouldReleaseExpiredHoldsAndKeepPaidOrders() {
+        // given: product with 10 in stock, a paid order for 2 and an unpaid one for 3
+        UUID productId = createProductAndGetId("Milk", 3.99, 10);
+        CreateOrderRequest paidRequest = new CreateOrderRequest(List.of(new CreateOrderItemRequest(productId, 2)));
+        CreateOrderRequest abandonedRequest = new CreateOrderRequest(List.of(new CreateOrderItemRequest(productId, 3)));
+
+        OrderResponse paid = user().post().uri("/orders").body(paidRequest).retrieve().body(OrderResponse.class);
+        OrderResponse abandoned = user().post().uri("/orders").body(abandonedRequest).retrieve().body(OrderResponse.class);
+        assertThat(paid).isNotNull();
+        assertThat(abandoned).isNotNull();
+        user().post().uri("/orders/" + paid.id() + "/pay").retrieve().toBodilessEntity();
+
+        // when: the unpaid order's hold runs out (the scheduled sweep may get there first)
+        recordingPublisher.clear();
+        jdbcTemplate.update("update orders set hold_expires_at = now() - interval '1 second' where id = ?", abandoned.id());
+        orderHoldSweeper.sweep();
+
+        // then: only its stock comes back
+        OrderResponse expired = user().get().uri("/orders/" + abandoned.id()).retrieve().body(OrderResponse.class);
+        assertThat(expired).isNotNull();
+        assertThat(expired.status().name()).isEqualTo("CANCELLED");
+        assertThat(expired.holdExpiresAt()).isNull();
+
+        ProductResponse product = client().get().uri("/products/" + productId).retrieve().body(ProductResponse.class);
+        assertThat(product).isNotNull();
+        assertThat(product.available()).isEqualTo(8);
+        assertThat(product.reserved()).isZero();
+
+        assertThat(recordingPublisher.getEvents())
+                .extracting(DomainEvent::type)
+                .containsExactlyInAnyOrder("StockAdjusted", "OrderCancelled");
     }
 
     @Test
@@ -0,0 +1,96 @@
+package com.example.order_management_api;
+
+import com.example.order_management_api.api.CreateOrderItemRequest;
+import com.example.order_management_api.api.CreateOrderRequest;
+import com.example.order_management_api.api.CreateProductRequest;
+import com.example.order_management_api.api.ProductResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Placing an order must cost a fixed number of statements whatever its line count:
+ * order lines, stock updates and outbox rows each go out as one JDBC batch.
+ */
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Keep background pollers from touching the statistics.
+        "app.order.async.enabled=false",
+        "app.order.hold.sweep-delay-ms=3600000"
+})
+class OrderInsertBatchingIntegrationTest extends PostgresTestBase {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private RestClient adminClient;
+    private RestClient userClient;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        RestClient client = RestClient.builder().baseUrl("http://localhost:" + port).build();
+        adminClient = authenticated(AuthTestSupport.loginAdmin(client));
+        userClient = authenticated(AuthTestSupport.registerAndLogin(
+                client, "batching-" + UUID.randomUUID() + "@test.com", "password123"));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private RestClient authenticated(String token) {
+        return RestClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .build();
+    }
+
+    private CreateOrderRequest orderWithLines(int lines) {
+        List<CreateOrderItemRequest> items = new ArrayList<>();
+        for (int i = 0; i < lines; i++) {
+            ProductResponse product = adminClient.post()
+                    .uri("/products")
+                    .body(new CreateProductRequest("Batch " + i, BigDecimal.ONE, 10, true))
+                    .retrieve()
+                    .body(ProductResponse.class);
+            assertThat(product).isNotNull();
+            items.add(new CreateOrderItemRequest(product.id(), 1));
+        }
+        return new CreateOrderRequest(items);
+    }
+
+    private long statementsToPlace(CreateOrderRequest request) {
+        statistics.clear();
+        userClient.post().uri("/orders").body(request).retrieve().toBodilessEntity();
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithOrderLines() {
+        CreateOrderRequest single = orderWithLines(1);
+        CreateOrderRequest twenty = orderWithLines(20);
+
+        long forSingle = statementsToPlace(single);
+        long forTwenty = statementsToPlace(twenty);
+
+        // Off by at most one: either order may be the one fetching a fresh block of ids.
+        assertThat(forTwenty).isCloseTo(forSingle, within(1L));
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1 + 20 + 1); // order, lines, outbox row
+    }
+}
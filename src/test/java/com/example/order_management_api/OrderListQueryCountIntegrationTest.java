@@ -0,0 +1,128 @@
+package com.example.order_management_api;
+
+import com.example.order_management_api.api.CreateOrderBatchRequest;
+import com.example.order_management_api.api.CreateOrderItemRequest;
+import com.example.order_management_api.api.CreateOrderRequest;
+import com.example.order_management_api.api.CreateProductRequest;
+import com.example.order_management_api.api.OrderResponse;
+import com.example.order_management_api.api.ProductResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Listing orders must cost a fixed number of queries whatever the number of orders:
+ * items are loaded together with (or right after) the orders, never one query per order.
+ */
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Keep background pollers from touching the statistics.
+        "app.order.async.enabled=false",
+        "app.order.hold.sweep-delay-ms=3600000"
+})
+class OrderListQueryCountIntegrationTest extends PostgresTestBase {
+
+    private static final int MANY = 500;
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    private RestClient client;
+    private RestClient adminClient;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        client = RestClient.builder().baseUrl("http://localhost:" + port).build();
+        adminClient = authenticated(AuthTestSupport.loginAdmin(client));
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private RestClient authenticated(String token) {
+        return RestClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .build();
+    }
+
+    /** Registers a customer and places {@code count} two-line orders for them. */
+    private Customer customerWithOrders(int count) {
+        String email = "listing-" + UUID.randomUUID() + "@test.com";
+        RestClient customer = authenticated(AuthTestSupport.registerAndLogin(client, email, "password123"));
+
+        UUID first = createProduct(count);
+        UUID second = createProduct(count);
+        CreateOrderRequest order = new CreateOrderRequest(List.of(
+                new CreateOrderItemRequest(first, 1),
+                new CreateOrderItemRequest(second, 1)
+        ));
+        customer.post()
+                .uri("/orders/batch")
+                .body(new CreateOrderBatchRequest(Collections.nCopies(count, order)))
+                .retrieve()
+                .toBodilessEntity();
+        return new Customer(email, customer);
+    }
+
+    private UUID createProduct(int stock) {
+        ProductResponse product = adminClient.post()
+                .uri("/products")
+                .body(new CreateProductRequest("Listing", BigDecimal.ONE, stock, true))
+                .retrieve()
+                .body(ProductResponse.class);
+        assertThat(product).isNotNull();
+        return product.id();
+    }
+
+    private long queriesToList(RestClient as, String uri, Object uriVariable, int expectedOrders) {
+        statistics.clear();
+        OrderResponse[] orders = as.get().uri(uri, uriVariable).retrieve().body(OrderResponse[].class);
+        long queries = statistics.getPrepareStatementCount();
+
+        assertThat(orders).hasSize(expectedOrders);
+        assertThat(orders).allSatisfy(o -> assertThat(o.items()).hasSize(2));
+        return queries;
+    }
+
+    @Test
+    void myOrdersQueryCountDoesNotGrowWithOrders() {
+        Customer one = customerWithOrders(1);
+        Customer many = customerWithOrders(MANY);
+
+        long forOne = queriesToList(one.client(), "/orders/my?limit=500", null, 1);
+        long forMany = queriesToList(many.client(), "/orders/my?limit=500", null, MANY);
+
+        assertThat(forMany).isEqualTo(forOne);
+    }
+
+    @Test
+    void adminListingQueryCountDoesNotGrowWithOrders() {
+        Customer one = customerWithOrders(1);
+        Customer many = customerWithOrders(MANY);
+
+        long forOne = queriesToList(adminClient, "/orders?customer={customer}&limit=500", one.email(), 1);
+        long forMany = queriesToList(adminClient, "/orders?customer={customer}&limit=500", many.email(), MANY);
+
+        assertThat(forMany).isEqualTo(forOne);
+    }
+
+    private record Customer(String email, RestClient client) {
+    }
+}
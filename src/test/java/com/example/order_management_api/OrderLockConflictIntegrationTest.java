@@ -0,0 +1,133 @@
+package com.example.order_management_api;
+
+import com.example.order_management_api.api.CreateOrderItemRequest;
+import com.example.order_management_api.api.CreateOrderRequest;
+import com.example.order_management_api.api.CreateProductRequest;
+import com.example.order_management_api.api.OrderResponse;
+import com.example.order_management_api.api.ProductResponse;
+import com.example.order_management_api.exception.ErrorResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A row lock held past {@code lock_timeout} on every retry surfaces as the same 409
+ * as a lost optimistic race, not as a 500.
+ */
+@TestPropertySource(properties = "spring.datasource.hikari.connection-init-sql=set lock_timeout = '200ms'")
+class OrderLockConflictIntegrationTest extends PostgresTestBase {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private RestClient restClient;
+    private RestClient adminClient;
+    private RestClient userClient;
+
+    private RestClient client() {
+        if (restClient == null) {
+            restClient = RestClient.builder()
+                    .baseUrl("http://localhost:" + port)
+                    .build();
+        }
+        return restClient;
+    }
+
+    private RestClient admin() {
+        if (adminClient == null) {
+            String token = AuthTestSupport.loginAdmin(client());
+            adminClient = RestClient.builder()
+                    .baseUrl("http://localhost:" + port)
+                    .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                    .build();
+        }
+        return adminClient;
+    }
+
+    private RestClient user() {
+        if (userClient == null) {
+            String email = "user-" + UUID.randomUUID() + "@test.com";
+            String token = AuthTestSupport.registerAndLogin(client(), email, "password123");
+            userClient = RestClient.builder()
+                    .baseUrl("http://localhost:" + port)
+                    .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                    .build();
+        }
+        return userClient;
+    }
+
+    private UUID createOrderAndGetId() {
+        ProductResponse product = admin()
+                .post()
+                .uri("/products")
+                .body(new CreateProductRequest("Milk", BigDecimal.valueOf(3.99), 10, true))
+                .retrieve()
+                .body(ProductResponse.class);
+        assertThat(product).isNotNull();
+
+        OrderResponse created = user()
+                .post()
+                .uri("/orders")
+                .body(new CreateOrderRequest(List.of(new CreateOrderItemRequest(product.id(), 1))))
+                .retrieve()
+                .body(OrderResponse.class);
+        assertThat(created).isNotNull();
+        return created.id();
+    }
+
+    @Test
+    void shouldAnswerConflictWhenTheOrderStaysLocked() throws InterruptedException {
+        UUID orderId = createOrderAndGetId();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Stands in for the hold sweeper (or another request) holding the order row.
+        Thread holder = Thread.ofVirtual().start(() -> transactionTemplate.executeWithoutResult(_ -> {
+            jdbcTemplate.queryForList("select id from orders where id = ? for update", orderId);
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        locked.await();
+
+        ErrorResponse error;
+        try {
+            error = user()
+                    .post()
+                    .uri("/orders/" + orderId + "/pay")
+                    .exchange((req, res) -> {
+                        assertThat(res.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+                        return res.bodyTo(ErrorResponse.class);
+                    });
+        } finally {
+            release.countDown();
+            holder.join();
+        }
+
+        assertThat(error).isNotNull();
+        assertThat(error.status()).isEqualTo(409);
+        assertThat(error.message()).isEqualTo("Concurrent update detected. Please retry.");
+    }
+}
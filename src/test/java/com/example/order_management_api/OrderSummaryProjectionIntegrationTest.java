@@ -0,0 +1,121 @@
+package com.example.order_management_api;
+
+import com.example.order_management_api.api.CreateOrderItemRequest;
+import com.example.order_management_api.api.CreateOrderRequest;
+import com.example.order_management_api.api.CreateProductRequest;
+import com.example.order_management_api.api.OrderResponse;
+import com.example.order_management_api.api.OrderStatsResponse;
+import com.example.order_management_api.api.ProductResponse;
+import com.example.order_management_api.model.OrderStatus;
+import com.example.order_management_api.projection.OrderSummaryProjector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderSummaryProjectionIntegrationTest extends PostgresTestBase {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    OrderSummaryProjector projector;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private RestClient admin;
+    private RestClient customer;
+
+    @BeforeEach
+    void setUp() {
+        RestClient client = RestClient.builder().baseUrl("http://localhost:" + port).build();
+        admin = authenticated(AuthTestSupport.loginAdmin(client));
+        customer = authenticated(AuthTestSupport.registerAndLogin(client, "summary-" + UUID.randomUUID() + "@test.com", "password123"));
+    }
+
+    private RestClient authenticated(String token) {
+        return RestClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .build();
+    }
+
+    private Map<OrderStatus, OrderStatsResponse> today() {
+        projector.project();
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        OrderStatsResponse[] rows = admin.get()
+                .uri("/admin/order-summary?from={day}&to={day}", today, today)
+                .retrieve()
+                .body(OrderStatsResponse[].class);
+        assertThat(rows).isNotNull();
+        return Arrays.stream(rows).collect(Collectors.toMap(OrderStatsResponse::status, Function.identity()));
+    }
+
+    private static long orders(Map<OrderStatus, OrderStatsResponse> stats, OrderStatus status) {
+        OrderStatsResponse row = stats.get(status);
+        return row != null ? row.orders() : 0;
+    }
+
+    private static BigDecimal revenue(Map<OrderStatus, OrderStatsResponse> stats, OrderStatus status) {
+        OrderStatsResponse row = stats.get(status);
+        return row != null ? row.revenue() : BigDecimal.ZERO;
+    }
+
+    @Test
+    void shouldProjectOrderLifecycleIntoDailyStats() {
+        Map<OrderStatus, OrderStatsResponse> before = today();
+
+        ProductResponse product = admin.post()
+                .uri("/products")
+                .body(new CreateProductRequest("Summary", new BigDecimal("2.50"), 100, true))
+                .retrieve()
+                .body(ProductResponse.class);
+        CreateOrderRequest cart = new CreateOrderRequest(List.of(new CreateOrderItemRequest(product.id(), 2)));
+        List<UUID> placed = List.of(
+                customer.post().uri("/orders").body(cart).retrieve().body(OrderResponse.class).id(),
+                customer.post().uri("/orders").body(cart).retrieve().body(OrderResponse.class).id(),
+                customer.post().uri("/orders").body(cart).retrieve().body(OrderResponse.class).id());
+        customer.post().uri("/orders/" + placed.get(0) + "/pay").retrieve().toBodilessEntity();
+        customer.post().uri("/orders/" + placed.get(1) + "/cancel").retrieve().toBodilessEntity();
+
+        Map<OrderStatus, OrderStatsResponse> after = today();
+
+        assertThat(orders(after, OrderStatus.CREATED) - orders(before, OrderStatus.CREATED)).isEqualTo(1);
+        assertThat(orders(after, OrderStatus.PAID) - orders(before, OrderStatus.PAID)).isEqualTo(1);
+        assertThat(orders(after, OrderStatus.CANCELLED) - orders(before, OrderStatus.CANCELLED)).isEqualTo(1);
+        assertThat(revenue(after, OrderStatus.PAID).subtract(revenue(before, OrderStatus.PAID)))
+                .isEqualByComparingTo("5.00");
+    }
+
+    @Test
+    void shouldRebuildSummaryFromOrders() {
+        jdbcTemplate.update("delete from order_summary");
+
+        admin.post().uri("/admin/order-summary/rebuild").retrieve().toBodilessEntity();
+
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        Long ordersToday = jdbcTemplate.queryForObject(
+                "select count(*) from orders o where (o.created_at at time zone 'UTC')::date = ?"
+                        + " and exists (select 1 from order_items i where i.order_id = o.id)",
+                Long.class, today);
+        long summarized = today().values().stream().mapToLong(OrderStatsResponse::orders).sum();
+
+        assertThat(summarized).isEqualTo(ordersToday);
+    }
+}
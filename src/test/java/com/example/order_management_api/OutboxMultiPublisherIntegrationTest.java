@@ -0,0 +1,165 @@
+package com.example.order_management_api;
+
+import com.example.order_management_api.outbox.OutboxEvent;
+import com.example.order_management_api.outbox.OutboxEventRepository;
+import com.example.order_management_api.outbox.OutboxKafkaProperties;
+import com.example.order_management_api.outbox.OutboxKafkaPublisherJob;
+import com.example.order_management_api.outbox.OutboxPartitionMaintenance;
+import com.example.order_management_api.outbox.OutboxPublisherProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Two publisher instances against one outbox: they claim disjoint rows, and neither
+ * sends an event of an aggregate ahead of an earlier event the other one holds.
+ */
+class OutboxMultiPublisherIntegrationTest extends PostgresTestBase {
+
+    @Autowired
+    OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    OutboxPartitionMaintenance partitions;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    private final List<UUID> created = new ArrayList<>();
+
+    @AfterEach
+    void deleteEvents() {
+        outboxEventRepository.deleteAllById(created);
+    }
+
+    /** Dated long before any other test's events, so publishers claim these first. */
+    private OutboxEvent save(UUID aggregateId, String payload, int second) {
+        OutboxEvent event = outboxEventRepository.save(OutboxEvent.builder()
+                .aggregateType("PRODUCT")
+                .aggregateId(aggregateId)
+                .type("ProductUpdated")
+                .payloadJson(json(payload))
+                .occurredAt(Instant.EPOCH.plusSeconds(second))
+                .build());
+        created.add(event.getId());
+        return event;
+    }
+
+    /** A JSON string, which jsonb hands back exactly as written. */
+    private static String json(String text) {
+        return "\"" + text + "\"";
+    }
+
+    private OutboxKafkaPublisherJob publisher(KafkaTemplate<String, String> kafkaTemplate, int batchSize) {
+        OutboxPublisherProperties properties = new OutboxPublisherProperties();
+        properties.setLanes(1);
+        properties.setBatchSize(batchSize);
+        return publisher(kafkaTemplate, properties);
+    }
+
+    private OutboxKafkaPublisherJob publisher(KafkaTemplate<String, String> kafkaTemplate, OutboxPublisherProperties properties) {
+        OutboxKafkaProperties topics = new OutboxKafkaProperties();
+        topics.setOrder("order-events");
+        topics.setProduct("product-events");
+        return new OutboxKafkaPublisherJob(outboxEventRepository, kafkaTemplate, topics, properties,
+                transactionTemplate, new SimpleMeterRegistry(), partitions);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void publishersClaimDisjointBatchesAndKeepAggregateOrder() throws Exception {
+        UUID shared = UUID.randomUUID();
+        OutboxEvent first = save(shared, "first", 1);
+        OutboxEvent second = save(shared, "second", 2);
+        OutboxEvent other = save(UUID.randomUUID(), "other", 3);
+        // They land in the default partition, below the hotFrom of the last run; recompute it.
+        partitions.maintain();
+
+        // Instance A claims the first event and sits on it until the broker answers.
+        CountDownLatch sent = new CountDownLatch(1);
+        CompletableFuture<SendResult<String, String>> ack = new CompletableFuture<>();
+        KafkaTemplate<String, String> slowKafka = mock(KafkaTemplate.class);
+        when(slowKafka.send(anyString(), anyString(), anyString())).thenAnswer(_ -> {
+            sent.countDown();
+            return ack;
+        });
+        Thread instanceA = Thread.ofVirtual().start(() -> publisher(slowKafka, 1).publishBatch(0));
+        assertThat(sent.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // Instance B skips the locked row and must not overtake it with the second event.
+        KafkaTemplate<String, String> kafka = mock(KafkaTemplate.class);
+        when(kafka.send(anyString(), anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        OutboxKafkaPublisherJob instanceB = publisher(kafka, 2);
+        instanceB.publishBatch(0);
+
+        verify(kafka, never()).send(anyString(), anyString(), eq(json("first")));
+        verify(kafka, never()).send(anyString(), anyString(), eq(json("second")));
+        verify(kafka).send(anyString(), anyString(), eq(json("other")));
+
+        ack.complete(null);
+        instanceA.join();
+        instanceB.publishBatch(0);
+
+        verify(kafka).send(anyString(), anyString(), eq(json("second")));
+        assertThat(outboxEventRepository.findAllById(List.of(first.getId(), second.getId(), other.getId())))
+                .allSatisfy(e -> assertThat(e.getPublishedAt()).isNotNull());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deadLettersAnEventThatKeepsFailingAndPublishesTheRestOfItsAggregate() {
+        UUID aggregate = UUID.randomUUID();
+        OutboxEvent stuck = save(aggregate, "stuck", 1);
+        OutboxEvent next = save(aggregate, "next", 2);
+        partitions.maintain();
+        KafkaTemplate<String, String> kafka = mock(KafkaTemplate.class);
+        when(kafka.send(anyString(), anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        when(kafka.send(anyString(), anyString(), eq(json("stuck"))))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("record too large")));
+        OutboxPublisherProperties properties = new OutboxPublisherProperties();
+        properties.setLanes(1);
+        properties.setRetryBackoff(Duration.ZERO);
+        properties.setMaxSendFailures(2);
+        OutboxKafkaPublisherJob publisher = publisher(kafka, properties);
+
+        publisher.publishBatch(0);
+        publisher.publishBatch(0);
+        publisher.publishBatch(0);
+
+        verify(kafka, times(2)).send(anyString(), anyString(), eq(json("stuck")));
+        verify(kafka).send(anyString(), anyString(), eq(json("next")));
+        assertThat(jdbcTemplate.queryForMap(
+                "select send_failures, dead_lettered_at, published_at from outbox_events where id = ?", stuck.getId()))
+                .containsEntry("send_failures", 2)
+                .containsEntry("published_at", null)
+                .extractingByKey("dead_lettered_at").isNotNull();
+        assertThat(outboxEventRepository.findById(next.getId()))
+                .hasValueSatisfying(e -> assertThat(e.getPublishedAt()).isNotNull());
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.order_management_api;
+
+import com.example.order_management_api.outbox.OutboxPartitionMaintenance;
+import com.example.order_management_api.outbox.OutboxPartitionProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxPartitionIntegrationTest extends PostgresTestBase {
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    OutboxPartitionMaintenance partitions;
+
+    @Autowired
+    OutboxPartitionProperties properties;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    private final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    private final List<String> created = new ArrayList<>();
+
+    @AfterEach
+    void dropPartitions() {
+        created.forEach(name -> jdbcTemplate.execute("drop table if exists " + name));
+    }
+
+    private static String name(LocalDate day) {
+        return "outbox_events_p" + day.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    private static Instant start(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    private List<String> partitionNames() {
+        return jdbcTemplate.queryForList("""
+                select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid
+                 where i.inhparent = 'outbox_events'::regclass
+                """, String.class);
+    }
+
+    /** A past day's partition holding one event. */
+    private void dayWithEvent(LocalDate day, String aggregateType, boolean published, boolean projected) {
+        jdbcTemplate.execute("create table " + name(day) + " partition of outbox_events"
+                + " for values from ('" + start(day) + "') to ('" + start(day.plusDays(1)) + "')");
+        created.add(name(day));
+
+        Timestamp occurredAt = Timestamp.from(start(day).plusSeconds(60));
+        jdbcTemplate.update("""
+                        insert into outbox_events (id, aggregate_type, aggregate_id, type, payload_json,
+                                                   occurred_at, created_at, published_at, projected_at)
+                        values (?, ?, ?, 'Test', '{}'::jsonb, ?, ?, ?, ?)
+                        """,
+                UUID.randomUUID(), aggregateType, UUID.randomUUID(), occurredAt, occurredAt,
+                published ? occurredAt : null, projected ? occurredAt : null);
+    }
+
+    @Test
+    void shouldCreatePartitionsAhead() {
+        partitions.maintain();
+
+        assertThat(partitionNames()).contains(name(today), name(today.plusDays(properties.getDaysAhead())));
+    }
+
+    @Test
+    void shouldDropOnlySettledPartitionsPastRetentionAndSkipThemWhenPublishing() {
+        LocalDate settled = today.minusDays(30);
+        LocalDate unpublished = today.minusDays(29);
+        LocalDate unprojected = today.minusDays(28);
+        dayWithEvent(settled, "ORDER", true, true);
+        dayWithEvent(unpublished, "PRODUCT", false, false);
+        dayWithEvent(unprojected, "ORDER", true, false);
+
+        partitions.maintain();
+
+        assertThat(partitionNames())
+                .doesNotContain(name(settled))
+                .contains(name(unpublished), name(unprojected));
+        // Publishers start at the oldest partition that still has something to send.
+        assertThat(partitions.hotFrom()).isEqualTo(start(unpublished));
+    }
+
+    @Test
+    void shouldNotLetADeadLetteredEventHoldItsPartition() {
+        LocalDate deadLettered = today.minusDays(30);
+        dayWithEvent(deadLettered, "PRODUCT", false, false);
+        jdbcTemplate.update("update " + name(deadLettered) + " set dead_lettered_at = now()");
+
+        partitions.maintain();
+
+        assertThat(partitionNames()).doesNotContain(name(deadLettered));
+        assertThat(partitions.hotFrom()).isAfter(start(deadLettered));
+    }
+
+    @Test
+    void shouldMoveEventsOutOfTheDefaultPartitionIntoTheDayCreatedForThem() {
+        LocalDate lastDay = today.plusDays(properties.getDaysAhead());
+        jdbcTemplate.execute("drop table if exists " + name(lastDay));
+        UUID id = UUID.randomUUID();
+        Timestamp occurredAt = Timestamp.from(start(lastDay).plusSeconds(60));
+        jdbcTemplate.update("""
+                        insert into outbox_events (id, aggregate_type, aggregate_id, type, payload_json, occurred_at, created_at)
+                        values (?, 'PRODUCT', ?, 'Test', '{}'::jsonb, ?, ?)
+                        """, id, UUID.randomUUID(), occurredAt, occurredAt);
+
+        try {
+            partitions.maintain();
+
+            assertThat(partitionNames()).contains(name(lastDay));
+            assertThat(jdbcTemplate.queryForObject("select count(*) from " + name(lastDay) + " where id = ?", Integer.class, id))
+                    .isEqualTo(1);
+            assertThat(jdbcTemplate.queryForObject("select count(*) from outbox_events_default", Integer.class))
+                    .isZero();
+        } finally {
+            jdbcTemplate.update("delete from outbox_events where id = ?", id);
+        }
+    }
+
+    @Test
+    void shouldSkipTheRunInsteadOfQueueingBehindBusyPublishers() throws InterruptedException {
+        LocalDate lastDay = today.plusDays(properties.getDaysAhead());
+        jdbcTemplate.execute("drop table if exists " + name(lastDay));
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // Stands in for a publisher holding its claim on outbox_events.
+        Thread publisher = Thread.ofVirtual().start(() -> transactionTemplate.executeWithoutResult(_ -> {
+            jdbcTemplate.execute("lock table outbox_events in access share mode");
+            locked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        locked.await();
+
+        try {
+            partitions.maintain();
+            assertThat(partitionNames()).doesNotContain(name(lastDay));
+        } finally {
+            release.countDown();
+            publisher.join();
+        }
+
+        partitions.maintain();
+        assertThat(partitionNames()).contains(name(lastDay));
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.order_management_api;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Insert and publish-read throughput of outbox payloads stored as large objects
+ * ({@code oid}, what {@code @Lob String} maps to) versus inline {@code jsonb}, plus the
+ * storage each leaves behind. Large objects go through the same calls the JDBC driver
+ * makes (create, open, write or read, close), one round trip each. Row count can be
+ * raised with {@code -Dbenchmark.rows=1000000}. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class OutboxPayloadBenchmark extends PostgresTestBase {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 20_000);
+    private static final int BATCH = 500;
+    private static final int INV_READ_WRITE = 0x60000;
+    private static final String PAYLOAD = """
+            {"eventId":"%s","occurredAt":"2026-01-01T00:00:00Z","orderId":"%s","userId":"%s",\
+            "items":[{"productId":"%s","quantity":2,"unitPrice":19.99}],"total":39.98}""";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void dropTables() {
+        if (Boolean.TRUE.equals(jdbcTemplate.queryForObject("select to_regclass('bench_outbox_oid') is not null", Boolean.class))) {
+            // Dropping the table would leave its large objects behind.
+            jdbcTemplate.execute("select count(lo_unlink(payload)) from bench_outbox_oid");
+        }
+        jdbcTemplate.execute("drop table if exists bench_outbox_oid, bench_outbox_jsonb");
+    }
+
+    @Test
+    void compareLargeObjectAndJsonbPayloads() {
+        jdbcTemplate.execute("drop table if exists bench_outbox_oid, bench_outbox_jsonb");
+        jdbcTemplate.execute("create table bench_outbox_oid (id uuid primary key, payload oid not null)");
+        jdbcTemplate.execute("create table bench_outbox_jsonb (id uuid primary key, payload jsonb not null)");
+
+        long largeObjectsBefore = bytes("pg_largeobject");
+        Result oid = run("bench_outbox_oid", this::insertLargeObjects, this::readLargeObjects);
+        long largeObjectBytes = bytes("pg_largeobject") - largeObjectsBefore;
+        Result jsonb = run("bench_outbox_jsonb", this::insertJsonb, this::readJsonb);
+
+        System.out.printf("%,d rows%n", ROWS);
+        System.out.printf("oid:   insert %8.0f rows/s  read %8.0f rows/s  table %,12d bytes + pg_largeobject %,12d bytes%n",
+                oid.insertsPerSecond(), oid.readsPerSecond(), oid.tableBytes(), largeObjectBytes);
+        System.out.printf("jsonb: insert %8.0f rows/s  read %8.0f rows/s  table %,12d bytes%n",
+                jsonb.insertsPerSecond(), jsonb.readsPerSecond(), jsonb.tableBytes());
+
+        // One statement per batch instead of four round trips per row.
+        assertThat(jsonb.insertsPerSecond()).isGreaterThan(oid.insertsPerSecond());
+        assertThat(jsonb.readsPerSecond()).isGreaterThan(oid.readsPerSecond());
+    }
+
+    private Result run(String table, BatchWriter writer, BatchReader reader) {
+        long began = System.nanoTime();
+        for (int done = 0; done < ROWS; done += BATCH) {
+            List<Object[]> rows = new ArrayList<>(BATCH);
+            for (int i = 0; i < Math.min(BATCH, ROWS - done); i++) {
+                rows.add(new Object[]{UUID.randomUUID(), payload()});
+            }
+            transactionTemplate.executeWithoutResult(_ -> writer.write(rows));
+        }
+        double insertsPerSecond = ROWS / ((System.nanoTime() - began) / 1e9);
+
+        // Read back the way the publisher does: batches in key order, payload included.
+        began = System.nanoTime();
+        UUID after = new UUID(0, 0);
+        for (int done = 0; done < ROWS; done += BATCH) {
+            UUID from = after;
+            after = transactionTemplate.execute(_ -> reader.read(from));
+        }
+        double readsPerSecond = ROWS / ((System.nanoTime() - began) / 1e9);
+
+        return new Result(insertsPerSecond, readsPerSecond, bytes(table));
+    }
+
+    private void insertLargeObjects(List<Object[]> rows) {
+        List<Object[]> withOids = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            Long oid = jdbcTemplate.queryForObject("select lo_create(0)", Long.class);
+            Integer fd = jdbcTemplate.queryForObject("select lo_open(?::oid, ?)", Integer.class, oid, INV_READ_WRITE);
+            jdbcTemplate.queryForObject("select lowrite(?, ?)", Integer.class,
+                    fd, ((String) row[1]).getBytes(StandardCharsets.UTF_8));
+            jdbcTemplate.queryForObject("select lo_close(?)", Integer.class, fd);
+            withOids.add(new Object[]{row[0], oid});
+        }
+        jdbcTemplate.batchUpdate("insert into bench_outbox_oid (id, payload) values (?, ?::oid)", withOids);
+    }
+
+    private void insertJsonb(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("insert into bench_outbox_jsonb (id, payload) values (?, ?::jsonb)", rows);
+    }
+
+    private UUID readLargeObjects(UUID after) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "select id, payload from bench_outbox_oid where id > ? order by id limit ?", after, BATCH);
+        for (Map<String, Object> row : rows) {
+            Integer fd = jdbcTemplate.queryForObject("select lo_open(?::oid, ?)", Integer.class, row.get("payload"), INV_READ_WRITE);
+            byte[] bytes = jdbcTemplate.queryForObject("select loread(?, 1048576)", byte[].class, fd);
+            jdbcTemplate.queryForObject("select lo_close(?)", Integer.class, fd);
+            assertThat(bytes).isNotEmpty();
+        }
+        return (UUID) rows.getLast().get("id");
+    }
+
+    private UUID readJsonb(UUID after) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "select id, payload::text as payload from bench_outbox_jsonb where id > ? order by id limit ?", after, BATCH);
+        assertThat(rows).allSatisfy(row -> assertThat((String) row.get("payload")).isNotEmpty());
+        return (UUID) rows.getLast().get("id");
+    }
+
+    private long bytes(String relation) {
+        Long bytes = jdbcTemplate.queryForObject("select pg_total_relation_size(?::regclass)", Long.class, relation);
+        return bytes != null ? bytes : 0;
+    }
+
+    private static String payload() {
+        return PAYLOAD.formatted(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+    }
+
+    @FunctionalInterface
+    private interface BatchWriter {
+        void write(List<Object[]> rows);
+    }
+
+    @FunctionalInterface
+    private interface BatchReader {
+        /** Reads the batch after {@code after}; returns the last id read. */
+        UUID read(UUID after);
+    }
+
+    private record Result(double insertsPerSecond, double readsPerSecond, long tableBytes) {
+    }
+}
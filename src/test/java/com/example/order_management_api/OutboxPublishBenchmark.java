@@ -0,0 +1,120 @@
+package com.example.order_management_api;
+
+import com.example.order_management_api.outbox.OutboxEvent;
+import com.example.order_management_api.outbox.OutboxEventRepository;
+import com.example.order_management_api.outbox.OutboxKafkaProperties;
+import com.example.order_management_api.outbox.OutboxKafkaPublisherJob;
+import com.example.order_management_api.outbox.OutboxPartitionMaintenance;
+import com.example.order_management_api.outbox.OutboxPublisherProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Outbox publish throughput with one blocking send per event versus the pipelined
+ * {@link OutboxKafkaPublisherJob}, against a broker stand-in that acknowledges each
+ * send after a fixed round trip. Latency and event count can be raised with
+ * {@code -Dbenchmark.latency-ms=5 -Dbenchmark.events=5000}. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class OutboxPublishBenchmark {
+
+    private static final int EVENTS = Integer.getInteger("benchmark.events", 2_000);
+    private static final int LATENCY_MS = Integer.getInteger("benchmark.latency-ms", 2);
+    private static final int BATCH = 500;
+
+    private final ScheduledExecutorService broker = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    void stopBroker() {
+        broker.shutdownNow();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void compareBlockingAndPipelinedSends() throws Exception {
+        KafkaTemplate<String, String> kafkaTemplate = mock(KafkaTemplate.class);
+        when(kafkaTemplate.send(anyString(), anyString(), anyString())).thenAnswer(_ -> acknowledgedLater());
+
+        OutboxKafkaProperties topics = new OutboxKafkaProperties();
+        topics.setOrder("order-events");
+        OutboxPublisherProperties properties = new OutboxPublisherProperties();
+        properties.setBatchSize(BATCH);
+        List<OutboxEvent> events = events();
+
+        long began = System.nanoTime();
+        for (OutboxEvent e : events) {
+            kafkaTemplate.send(topics.getOrder(), e.getAggregateId().toString(), e.getPayloadJson()).get();
+        }
+        double blocking = EVENTS / ((System.nanoTime() - began) / 1e9);
+
+        OutboxEventRepository repository = mock(OutboxEventRepository.class);
+        when(repository.claimUnpublished(any(), anyInt(), anyInt(), anyInt(), any())).thenAnswer(_ ->
+                events.stream().filter(e -> e.getPublishedAt() == null).limit(BATCH).toList());
+        when(repository.markPublished(any(), any(), any(), any())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            Instant publishedAt = invocation.getArgument(3);
+            events.stream().filter(e -> ids.contains(e.getId())).forEach(e -> e.setPublishedAt(publishedAt));
+            return ids.size();
+        });
+        OutboxKafkaPublisherJob job = new OutboxKafkaPublisherJob(repository, kafkaTemplate, topics, properties,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), new SimpleMeterRegistry(),
+                mock(OutboxPartitionMaintenance.class));
+
+        began = System.nanoTime();
+        for (int run = 0; run < (EVENTS + BATCH - 1) / BATCH; run++) {
+            job.publishBatch(0);
+        }
+        double pipelined = EVENTS / ((System.nanoTime() - began) / 1e9);
+
+        System.out.printf("%,d events, %d ms round trip, batch %d%n", EVENTS, LATENCY_MS, BATCH);
+        System.out.printf("blocking:  %10.0f events/s%n", blocking);
+        System.out.printf("pipelined: %10.0f events/s%n", pipelined);
+
+        assertThat(events).allSatisfy(e -> assertThat(e.getPublishedAt()).isNotNull());
+        assertThat(pipelined).isGreaterThan(blocking * 10);
+    }
+
+    private CompletableFuture<SendResult<String, String>> acknowledgedLater() {
+        CompletableFuture<SendResult<String, String>> ack = new CompletableFuture<>();
+        broker.schedule(() -> ack.complete(null), LATENCY_MS, TimeUnit.MILLISECONDS);
+        return ack;
+    }
+
+    private static List<OutboxEvent> events() {
+        List<OutboxEvent> events = new ArrayList<>(EVENTS);
+        for (int i = 0; i < EVENTS; i++) {
+            events.add(OutboxEvent.builder()
+                    .id(UUID.randomUUID())
+                    .aggregateType("ORDER")
+                    .aggregateId(UUID.randomUUID())
+                    .type("OrderCreated")
+                    .payloadJson("{}")
+                    .occurredAt(Instant.now())
+                    .build());
+        }
+        return events;
+    }
+}
@@ -30,6 +30,10 @@ public abstract class PostgresTestBase {
         registry.add("spring.jpa.show-sql", () -> "false");
 
         registry.add("app.outbox.publisher.enabled", () -> "false");
+        // Tests run the order_summary projector themselves.
+        registry.add("app.order.summary.projector-delay-ms", () -> "3600000");
+        // Export tests wait this long for their orders to settle.
+        registry.add("app.order.export.settle-time", () -> "2s");
         registry.add("app.kafka.consumer.enabled", () -> "false");
         registry.add("app.kafka.producer.enabled", () -> "false");
     }
@@ -1,11 +1,14 @@
 package com.example.order_management_api;
 
 import com.example.order_management_api.api.CreateProductRequest;
+import com.example.order_management_api.api.InventoryResponse;
 import com.example.order_management_api.api.ProductResponse;
 import com.example.order_management_api.api.UpdateProductRequest;
 import com.example.order_management_api.api.UpdateStockRequest;
+import com.example.order_management_api.api.UpdateStripesRequest;
 import com.example.order_management_api.event.publisher.DomainEventPublisher;
 import com.example.order_management_api.exception.ErrorResponse;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,9 +19,13 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestClient;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -36,6 +43,9 @@ class ProductControllerIntegrationTest extends PostgresTestBase {
     @Qualifier("recordingDomainEventPublisher")
     TestDomainEventPublisher recordingPublisher;
 
+    @Autowired
+    MeterRegistry meterRegistry;
+
     private RestClient client() {
         if (plainClient == null) {
             plainClient = RestClient.builder()
@@ -245,6 +255,156 @@ class ProductControllerIntegrationTest extends PostgresTestBase {
         assertThat(updated.available()).isEqualTo(25);
     }
 
+    @Test
+    void shouldKeepReportingLogicalStockWhenStriped() {
+        UUID id = createProductAndGetId("Console", BigDecimal.valueOf(499), 10);
+
+        InventoryResponse striped = admin()
+                .put()
+                .uri("/inventory/" + id + "/stripes")
+                .body(new UpdateStripesRequest(4))
+                .retrieve()
+                .body(InventoryResponse.class);
+
+        assertThat(striped).isNotNull();
+        assertThat(striped.stripes()).isEqualTo(4);
+        assertThat(striped.available()).isEqualTo(10);
+
+        // setTo rebalances the stripes; the product still shows one number
+        ProductResponse updated = admin()
+                .post()
+                .uri("/products/" + id + "/stock")
+                .body(new UpdateStockRequest(null, 7))
+                .retrieve()
+                .body(ProductResponse.class);
+
+        assertThat(updated).isNotNull();
+        assertThat(updated.available()).isEqualTo(7);
+
+        ProductResponse fetched = client()
+                .get()
+                .uri("/products/" + id)
+                .retrieve()
+                .body(ProductResponse.class);
+
+        assertThat(fetched).isNotNull();
+        assertThat(fetched.available()).isEqualTo(7);
+    }
+
+    @Test
+    void shouldPageLowStockInventoryOfActiveProducts() {
+        UUID low = createProductAndGetId("Batteries", BigDecimal.valueOf(4.50), 1);
+        UUID enough = createProductAndGetId("Cables", BigDecimal.valueOf(9.00), 3);
+        UUID striped = createProductAndGetId("Headphones", BigDecimal.valueOf(79.00), 2);
+        admin().put().uri("/inventory/" + striped + "/stripes").body(new UpdateStripesRequest(2)).retrieve().toBodilessEntity();
+        ProductResponse inactive = admin()
+                .post()
+                .uri("/products")
+                .body(new CreateProductRequest("Discontinued", BigDecimal.ONE, 0, false))
+                .retrieve()
+                .body(ProductResponse.class);
+        assertThat(inactive).isNotNull();
+
+        // Other tests share the database: walk every page and look for ours.
+        List<InventoryResponse> listed = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            String after = cursor;
+            ResponseEntity<InventoryResponse[]> page = admin()
+                    .get()
+                    .uri(b -> b.path("/inventory")
+                            .queryParam("lowStock", 2)
+                            .queryParam("active", true)
+                            .queryParam("limit", 1)
+                            .queryParamIfPresent("cursor", Optional.ofNullable(after))
+                            .build())
+                    .retrieve()
+                    .toEntity(InventoryResponse[].class);
+            assertThat(page.getBody()).isNotNull();
+            listed.addAll(List.of(page.getBody()));
+            cursor = page.getHeaders().getFirst("X-Next-Cursor");
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isGreaterThan(1);
+        assertThat(listed).allSatisfy(inventory -> assertThat(inventory.available()).isLessThanOrEqualTo(2));
+        assertThat(listed).extracting(InventoryResponse::productId)
+                .contains(low, striped)
+                .doesNotContain(enough, inactive.id())
+                .doesNotHaveDuplicates();
+        assertThat(listed).filteredOn(inventory -> inventory.productId().equals(striped))
+                .singleElement()
+                .satisfies(inventory -> {
+                    assertThat(inventory.productName()).isEqualTo("Headphones");
+                    assertThat(inventory.available()).isEqualTo(2);
+                    assertThat(inventory.stripes()).isEqualTo(2);
+                });
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromCacheAndEvictOnWrites() {
+        UUID id = createProductAndGetId("Cheese", BigDecimal.valueOf(6.00), 10);
+        double hitsBefore = cacheGets("hit");
+
+        client().get().uri("/products/" + id).retrieve().body(ProductResponse.class);
+        ProductResponse cached = client().get().uri("/products/" + id).retrieve().body(ProductResponse.class);
+
+        assertThat(cached).isNotNull();
+        assertThat(cacheGets("hit")).isEqualTo(hitsBefore + 1);
+
+        // writes are visible on the next read
+        admin().patch().uri("/products/" + id)
+                .body(new UpdateProductRequest("Aged cheese", null, null))
+                .retrieve().toBodilessEntity();
+        admin().post().uri("/products/" + id + "/stock")
+                .body(new UpdateStockRequest(-4, null))
+                .retrieve().toBodilessEntity();
+
+        ProductResponse fetched = client().get().uri("/products/" + id).retrieve().body(ProductResponse.class);
+        ProductResponse[] listed = client().get().uri("/products?active=true").retrieve().body(ProductResponse[].class);
+
+        assertThat(fetched).isNotNull();
+        assertThat(fetched.name()).isEqualTo("Aged cheese");
+        assertThat(fetched.available()).isEqualTo(6);
+        assertThat(listed)
+                .filteredOn(p -> p.id().equals(id))
+                .singleElement()
+                .satisfies(p -> assertThat(p.available()).isEqualTo(6));
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets").tag("cache", "products").tag("result", result).functionCounter().count();
+    }
+
+    @Test
+    void shouldAnswerUnchangedProductWith304() {
+        UUID id = createProductAndGetId("Butter", BigDecimal.valueOf(2.20), 10);
+
+        ResponseEntity<ProductResponse> first = client().get().uri("/products/" + id)
+                .retrieve().toEntity(ProductResponse.class);
+        String eTag = first.getHeaders().getETag();
+
+        HttpStatus unchanged = (HttpStatus) client().get().uri("/products/" + id)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange((req, res) -> res.getStatusCode());
+
+        admin().post().uri("/products/" + id + "/stock")
+                .body(new UpdateStockRequest(-1, null))
+                .retrieve().toBodilessEntity();
+
+        ResponseEntity<ProductResponse> changed = client().get().uri("/products/" + id)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .retrieve().toEntity(ProductResponse.class);
+
+        assertThat(eTag).isNotNull().doesNotStartWith("W/");
+        assertThat(unchanged).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(changed.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(changed.getHeaders().getETag()).isNotEqualTo(eTag);
+        assertThat(changed.getBody()).isNotNull();
+        assertThat(changed.getBody().available()).isEqualTo(9);
+    }
+
     @Test
     void shouldReturn409WhenStockWouldGoBelowZero() {
         UUID id = createProductAndGetId("Milk", BigDecimal.valueOf(3.99), 2);
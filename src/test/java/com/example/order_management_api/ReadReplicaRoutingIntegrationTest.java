@@ -0,0 +1,91 @@
+package com.example.order_management_api;
+
+import com.example.order_management_api.api.CreateProductRequest;
+import com.example.order_management_api.api.ProductResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.RestClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Read-only transactions on a second database. The "replica" is a separate container
+ * with the same schema but no replication, so a read shows which pool served it:
+ * rows written through the API exist only on the primary.
+ */
+class ReadReplicaRoutingIntegrationTest extends PostgresTestBase {
+
+    static final PostgreSQLContainer<?> replica =
+            new PostgreSQLContainer<>("postgres:16")
+                    .withDatabaseName("orders")
+                    .withUsername("orders")
+                    .withPassword("orders");
+
+    static {
+        replica.start();
+        Flyway.configure()
+                .dataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword())
+                .load()
+                .migrate();
+    }
+
+    @DynamicPropertySource
+    static void registerReplica(DynamicPropertyRegistry registry) {
+        registry.add("app.datasource.replica.url", replica::getJdbcUrl);
+        registry.add("app.datasource.replica.username", replica::getUsername);
+        registry.add("app.datasource.replica.password", replica::getPassword);
+        registry.add("app.datasource.replica.pin-window", () -> "1h");
+    }
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Test
+    void anonymousReadsGoToReplicaWhileWritersReadTheirOwnWrites() {
+        RestClient anonymous = RestClient.builder().baseUrl("http://localhost:" + port).build();
+        RestClient admin = RestClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + AuthTestSupport.loginAdmin(anonymous))
+                .build();
+
+        ProductResponse created = admin.post()
+                .uri("/products")
+                .body(new CreateProductRequest("Replicated", BigDecimal.ONE, 5, true))
+                .retrieve()
+                .body(ProductResponse.class);
+        assertThat(created).isNotNull();
+
+        ProductResponse ownRead = admin.get()
+                .uri("/products/{id}", created.id())
+                .retrieve()
+                .body(ProductResponse.class);
+        HttpStatus replicaRead = (HttpStatus) anonymous.get()
+                .uri("/products/{id}", created.id())
+                .exchange((req, res) -> res.getStatusCode());
+
+        // the admin just wrote, so the primary answers; the replica never saw the product
+        assertThat(ownRead).isNotNull();
+        assertThat(ownRead.name()).isEqualTo("Replicated");
+        assertThat(replicaRead).isEqualTo(HttpStatus.NOT_FOUND);
+
+        assertThat(meterRegistry.get("app.datasource.read-routing").tag("target", "primary").counter().count())
+                .isPositive();
+        assertThat(meterRegistry.get("app.datasource.read-routing").tag("target", "replica").counter().count())
+                .isPositive();
+        assertThat(meterRegistry.get("hikaricp.connections").tag("pool", "replica").gauge().value())
+                .isPositive();
+    }
+}
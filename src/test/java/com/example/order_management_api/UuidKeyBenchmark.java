@@ -0,0 +1,78 @@
+package com.example.order_management_api;
+
+import com.example.order_management_api.model.UuidV7;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Insert throughput and primary-key index size with random (v4) versus time-ordered
+ * (v7) UUID keys, on tables shaped like {@code outbox_events}. Row count can be raised
+ * with {@code -Dbenchmark.rows=10000000}. Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class UuidKeyBenchmark extends PostgresTestBase {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final int BATCH = 1_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void dropTables() {
+        jdbcTemplate.execute("drop table if exists bench_uuid_v4, bench_uuid_v7");
+    }
+
+    @Test
+    void compareRandomAndTimeOrderedKeys() {
+        Result v4 = insert("bench_uuid_v4", UUID::randomUUID);
+        Result v7 = insert("bench_uuid_v7", UuidV7::randomUuid);
+
+        System.out.printf("%,d rows%n", ROWS);
+        System.out.printf("uuid v4: %8.0f rows/s  pkey %,12d bytes  WAL %,14d bytes%n", v4.rowsPerSecond(), v4.indexBytes(), v4.walBytes());
+        System.out.printf("uuid v7: %8.0f rows/s  pkey %,12d bytes  WAL %,14d bytes%n", v7.rowsPerSecond(), v7.indexBytes(), v7.walBytes());
+
+        // Appending at the right edge leaves pages full instead of split half-empty.
+        assertThat(v7.indexBytes()).isLessThan(v4.indexBytes());
+    }
+
+    private Result insert(String table, Supplier<UUID> ids) {
+        jdbcTemplate.execute("drop table if exists " + table);
+        jdbcTemplate.execute("create table " + table + " ("
+                + "id uuid primary key, aggregate_id uuid not null, type varchar(255) not null, "
+                + "occurred_at timestamptz not null default now())");
+
+        Long walBefore = jdbcTemplate.queryForObject(
+                "select pg_wal_lsn_diff(pg_current_wal_lsn(), '0/0')::bigint", Long.class);
+        long began = System.nanoTime();
+
+        for (int done = 0; done < ROWS; done += BATCH) {
+            List<Object[]> rows = new ArrayList<>(BATCH);
+            for (int i = 0; i < Math.min(BATCH, ROWS - done); i++) {
+                rows.add(new Object[]{ids.get(), UUID.randomUUID(), "OrderCreated"});
+            }
+            jdbcTemplate.batchUpdate("insert into " + table + " (id, aggregate_id, type) values (?, ?, ?)", rows);
+        }
+
+        long elapsed = System.nanoTime() - began;
+        Long walAfter = jdbcTemplate.queryForObject(
+                "select pg_wal_lsn_diff(pg_current_wal_lsn(), '0/0')::bigint", Long.class);
+        Long indexBytes = jdbcTemplate.queryForObject(
+                "select pg_relation_size(?::regclass)", Long.class, table + "_pkey");
+
+        return new Result(ROWS / (elapsed / 1e9), indexBytes, walAfter - walBefore);
+    }
+
+    private record Result(double rowsPerSecond, long indexBytes, long walBytes) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.order_management_api.intake;
+
+import com.example.order_management_api.api.CreateOrderRequest;
+import com.example.order_management_api.api.OrderBatchResult;
+import com.example.order_management_api.api.OrderResponse;
+import com.example.order_management_api.model.OrderStatus;
+import com.example.order_management_api.model.Role;
+import com.example.order_management_api.model.User;
+import com.example.order_management_api.repository.UserRepository;
+import com.example.order_management_api.service.ConflictRetryExecutor;
+import com.example.order_management_api.service.ConflictRetryProperties;
+import com.example.order_management_api.service.OrderService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderIntakeWorkerTest {
+
+    private static final String PAYLOAD = "{\"items\":[{\"productId\":\"" + UUID.randomUUID() + "\",\"quantity\":1}]}";
+
+    private final UUID userId = UUID.randomUUID();
+    private OrderRequestRepository orderRequestRepository;
+    private UserRepository userRepository;
+    private OrderService orderService;
+    private OrderIntakeProperties properties;
+    private OrderIntakeWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        orderRequestRepository = mock(OrderRequestRepository.class);
+        userRepository = mock(UserRepository.class);
+        orderService = mock(OrderService.class);
+        properties = new OrderIntakeProperties();
+        ConflictRetryExecutor conflictRetryExecutor = new ConflictRetryExecutor(
+                mock(PlatformTransactionManager.class), new ConflictRetryProperties(), new SimpleMeterRegistry());
+        worker = new OrderIntakeWorker(orderRequestRepository, userRepository, orderService,
+                conflictRetryExecutor, properties, new ObjectMapper());
+    }
+
+    private User user() {
+        User user = mock(User.class);
+        when(user.getId()).thenReturn(userId);
+        when(user.getEmail()).thenReturn("intake@test.com");
+        when(user.getRole()).thenReturn(Role.USER);
+        return user;
+    }
+
+    @Test
+    void shouldFailRequestsThatRunOutOfAttempts() {
+        properties.setMaxAttempts(1);
+        User user = user();
+        when(orderRequestRepository.claimPending(anyInt())).thenReturn(List.of(OrderRequest.pending(userId, PAYLOAD)));
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+        when(orderService.createOrders(any(), any())).thenThrow(new DataAccessResourceFailureException("down"));
+        // What the database holds once the batch rolled back: the claim's attempt is gone.
+        OrderRequest stored = OrderRequest.pending(userId, PAYLOAD);
+        when(orderRequestRepository.lockPending(anyCollection())).thenReturn(List.of(stored));
+
+        assertThatThrownBy(worker::drainBatch).isInstanceOf(DataAccessResourceFailureException.class);
+
+        assertThat(stored.getAttempts()).isEqualTo(1);
+        assertThat(stored.getStatus()).isEqualTo(OrderRequestStatus.FAILED);
+        assertThat(stored.getErrorStatus()).isEqualTo(500);
+    }
+
+    @Test
+    void shouldCountAFailedBatchAndKeepItsRequestsPending() {
+        User user = user();
+        when(orderRequestRepository.claimPending(anyInt())).thenReturn(List.of(OrderRequest.pending(userId, PAYLOAD)));
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+        when(orderService.createOrders(any(), any())).thenThrow(new DataAccessResourceFailureException("down"));
+        OrderRequest stored = OrderRequest.pending(userId, PAYLOAD);
+        when(orderRequestRepository.lockPending(anyCollection())).thenReturn(List.of(stored));
+
+        assertThatThrownBy(worker::drainBatch).isInstanceOf(DataAccessResourceFailureException.class);
+
+        assertThat(stored.getAttempts()).isEqualTo(1);
+        assertThat(stored.getStatus()).isEqualTo(OrderRequestStatus.PENDING);
+    }
+
+    @Test
+    void shouldPlaceTheRestOfAFailedBatchAndCountOnlyTheRequestThatFailsAlone() {
+        UUID poisonProduct = UUID.randomUUID();
+        OrderRequest poison = OrderRequest.pending(userId,
+                "{\"items\":[{\"productId\":\"" + poisonProduct + "\",\"quantity\":1}]}");
+        OrderRequest valid = OrderRequest.pending(userId, PAYLOAD);
+        User user = user();
+        when(orderRequestRepository.claimPending(anyInt())).thenReturn(List.of(poison, valid));
+        when(orderRequestRepository.lockPending(anyCollection())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            return Stream.of(poison, valid).filter(request -> ids.contains(request.getId())).toList();
+        });
+        when(userRepository.findAllById(any())).thenReturn(List.of(user));
+        when(orderService.createOrders(any(), any())).thenAnswer(invocation -> {
+            List<CreateOrderRequest> payloads = invocation.getArgument(0);
+            if (payloads.stream().anyMatch(payload -> payload.items().getFirst().productId().equals(poisonProduct))) {
+                throw new DataAccessResourceFailureException("poison");
+            }
+            OrderResponse order = new OrderResponse(UUID.randomUUID(), "intake@test.com", OrderStatus.CREATED,
+                    List.of(), Instant.now(), null);
+            return List.of(OrderBatchResult.created(0, order));
+        });
+
+        assertThat(worker.drainBatch()).isEqualTo(2);
+
+        assertThat(valid.getStatus()).isEqualTo(OrderRequestStatus.COMPLETED);
+        assertThat(valid.getAttempts()).isZero();
+        assertThat(poison.getStatus()).isEqualTo(OrderRequestStatus.PENDING);
+        assertThat(poison.getAttempts()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFailRequestsOfAMissingUser() {
+        OrderRequest request = OrderRequest.pending(userId, PAYLOAD);
+        when(orderRequestRepository.claimPending(anyInt())).thenReturn(List.of(request));
+        when(userRepository.findAllById(any())).thenReturn(List.of());
+
+        assertThat(worker.drainBatch()).isEqualTo(1);
+
+        assertThat(request.getStatus()).isEqualTo(OrderRequestStatus.FAILED);
+        assertThat(request.getErrorStatus()).isEqualTo(404);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.order_management_api.kafka;
+
+import com.example.order_management_api.config.KafkaConsumerConfig;
+import com.example.order_management_api.service.ProductCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ProductCacheEvictionListenerTest {
+
+    @Test
+    void subscribesInAThrowawayGroupThatStartsAtTheEndAndCommitsNothing() throws NoSuchMethodException {
+        KafkaListener listener = ProductCacheEvictionListener.class
+                .getMethod("evictCachedProduct", String.class)
+                .getAnnotation(KafkaListener.class);
+
+        // A subscription, so partitions added later are assigned too; nothing looked up at startup.
+        assertThat(listener.topics()).containsExactly("${app.kafka.topics.product}");
+        assertThat(listener.topicPartitions()).isEmpty();
+        assertThat(listener.groupId()).isEqualTo("product-cache-${random.uuid}");
+        assertThat(listener.properties()).contains("auto.offset.reset=latest", "enable.auto.commit=false");
+        assertThat(listener.containerFactory()).isEqualTo("uncommittedListenerContainerFactory");
+
+        var factory = new KafkaConsumerConfig().uncommittedListenerContainerFactory(new DefaultKafkaConsumerFactory<>(Map.of()));
+        // Never acknowledged, so never committed.
+        assertThat(factory.getContainerProperties().getAckMode()).isEqualTo(ContainerProperties.AckMode.MANUAL);
+    }
+
+    @Test
+    void evictsTheProductNamedByTheRecordKey() {
+        ProductCache productCache = mock(ProductCache.class);
+        UUID productId = UUID.randomUUID();
+
+        new ProductCacheEvictionListener(productCache).evictCachedProduct(productId.toString());
+
+        verify(productCache).evict(List.of(productId));
+    }
+}
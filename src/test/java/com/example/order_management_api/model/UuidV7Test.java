@@ -0,0 +1,48 @@
+package com.example.order_management_api.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7Test {
+
+    @Test
+    void hasVersion7AndIetfVariant() {
+        UUID uuid = UuidV7.randomUuid();
+
+        assertThat(uuid.version()).isEqualTo(7);
+        assertThat(uuid.variant()).isEqualTo(2);
+    }
+
+    @Test
+    void carriesTimestampInTopBits() {
+        long millis = 1_700_000_000_123L;
+
+        UUID uuid = UuidV7.fromMillis(millis);
+
+        assertThat(uuid.getMostSignificantBits() >>> 16).isEqualTo(millis);
+    }
+
+    @Test
+    void sortsByCreationTime() {
+        UUID earlier = UuidV7.fromMillis(1_700_000_000_000L);
+        UUID later = UuidV7.fromMillis(1_700_000_000_001L);
+
+        // Postgres compares uuids as unsigned bytes; the string form sorts the same way.
+        assertThat(earlier.toString()).isLessThan(later.toString());
+    }
+
+    @Test
+    void isUniqueWithinTheSameMillisecond() {
+        Set<UUID> ids = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(UuidV7.fromMillis(1_700_000_000_000L));
+        }
+
+        assertThat(ids).hasSize(10_000);
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.order_management_api.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SuppressWarnings("unchecked")
+class OutboxKafkaPublisherJobTest {
+
+    private OutboxEventRepository repository;
+    private KafkaTemplate<String, String> kafkaTemplate;
+    private OutboxPublisherProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private final Set<UUID> published = new HashSet<>();
+    private OutboxKafkaPublisherJob job;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(OutboxEventRepository.class);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        published.clear();
+        when(repository.markPublished(any(), any(), any(), any())).thenAnswer(invocation -> {
+            Collection<UUID> ids = invocation.getArgument(0);
+            published.addAll(ids);
+            return ids.size();
+        });
+
+        OutboxKafkaProperties topics = new OutboxKafkaProperties();
+        topics.setOrder("order-events");
+        topics.setProduct("product-events");
+        properties = new OutboxPublisherProperties();
+        properties.setSendTimeout(Duration.ofMillis(200));
+
+        meterRegistry = new SimpleMeterRegistry();
+        OutboxPartitionMaintenance partitions = mock(OutboxPartitionMaintenance.class);
+        when(partitions.hotFrom()).thenReturn(Instant.EPOCH);
+
+        job = new OutboxKafkaPublisherJob(repository, kafkaTemplate, topics, properties,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry, partitions);
+    }
+
+    private static OutboxEvent event(UUID aggregateId, String payload) {
+        return OutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .aggregateType("ORDER")
+                .aggregateId(aggregateId)
+                .type("OrderCreated")
+                .payloadJson(payload)
+                .occurredAt(Instant.now())
+                .build();
+    }
+
+    private void unsent(OutboxEvent... events) {
+        when(repository.claimUnpublished(any(), anyInt(), anyInt(), anyInt(), any())).thenReturn(List.of(events));
+    }
+
+    private void answer(String payload, CompletableFuture<SendResult<String, String>> result) {
+        when(kafkaTemplate.send(anyString(), anyString(), eq(payload))).thenReturn(result);
+    }
+
+    @Test
+    void sendsTheWholeBatchBeforeAwaitingAcks() {
+        OutboxEvent first = event(UUID.randomUUID(), "first");
+        OutboxEvent second = event(UUID.randomUUID(), "second");
+        unsent(first, second);
+        // Neither send is ever acknowledged: a one-at-a-time job would never issue the second.
+        answer("first", new CompletableFuture<>());
+        answer("second", new CompletableFuture<>());
+
+        job.publishBatch(0);
+
+        verify(kafkaTemplate, times(2)).send(anyString(), anyString(), anyString());
+        assertThat(published).isEmpty();
+    }
+
+    @Test
+    void holdsBackAnAggregateWhoseEarlierEventIsClaimedElsewhere() {
+        UUID blocked = UUID.randomUUID();
+        OutboxEvent overtaking = event(blocked, "overtaking");
+        OutboxEvent later = event(blocked, "later");
+        OutboxEvent free = event(UUID.randomUUID(), "free");
+        unsent(overtaking, free, later);
+        when(repository.findOvertaking(any(), any())).thenReturn(Set.of(overtaking.getId()));
+        answer("free", CompletableFuture.completedFuture(null));
+
+        job.publishBatch(0);
+
+        verify(kafkaTemplate).send(anyString(), anyString(), eq("free"));
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), eq("overtaking"));
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), eq("later"));
+        assertThat(published).containsExactly(free.getId());
+    }
+
+    @Test
+    void marksOnlyAcknowledgedEventsAndKeepsAFailedAggregateInOrder() {
+        UUID failing = UUID.randomUUID();
+        UUID healthy = UUID.randomUUID();
+        OutboxEvent failed = event(failing, "failed");
+        OutboxEvent afterFailed = event(failing, "after-failed");
+        OutboxEvent other = event(healthy, "other");
+        unsent(failed, other, afterFailed);
+        answer("failed", CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        answer("other", CompletableFuture.completedFuture(null));
+        answer("after-failed", CompletableFuture.completedFuture(null));
+
+        job.publishBatch(0);
+
+        // afterFailed was taken by the broker, but is resent after the failed one on the next batch.
+        assertThat(published).containsExactly(other.getId());
+    }
+
+    @Test
+    void sleepsWhenTheOnlyPendingEventCannotBeSent() throws InterruptedException {
+        properties.setLanes(1);
+        properties.setPollDelay(Duration.ofMinutes(1));
+        unsent(event(UUID.randomUUID(), "stuck"));
+        answer("stuck", CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        job.start();
+        try {
+            // A lane that kept polling would resend it again and again.
+            verify(kafkaTemplate, after(300).times(1)).send(anyString(), anyString(), eq("stuck"));
+        } finally {
+            job.stop();
+        }
+    }
+
+    @Test
+    void backsOffAnAggregateWhoseSendFailed() {
+        UUID failing = UUID.randomUUID();
+        unsent(event(failing, "failed"));
+        answer("failed", CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        assertThat(job.publishBatch(0)).isZero();
+        job.publishBatch(0);
+
+        // The second claim leaves the failed aggregate out until its retry is due.
+        verify(repository).claimUnpublished(any(), anyInt(), anyInt(), anyInt(), eq(List.of(failing)));
+    }
+
+    @Test
+    void deadLettersAnEventThatHasRunOutOfSends() {
+        OutboxEvent stuck = event(UUID.randomUUID(), "stuck");
+        unsent(stuck);
+        answer("stuck", CompletableFuture.failedFuture(new IllegalStateException("record too large")));
+        when(repository.recordSendFailure(stuck.getId(), stuck.getOccurredAt(), properties.getMaxSendFailures()))
+                .thenReturn(true);
+
+        job.publishBatch(0);
+        job.publishBatch(0);
+
+        assertThat(meterRegistry.counter("app.outbox.dead-lettered", "aggregateType", "ORDER").count()).isEqualTo(1);
+        // Not backing off: the aggregate's later events are claimed right away.
+        verify(repository, times(2)).claimUnpublished(any(), anyInt(), anyInt(), anyInt(), eq(List.of(new UUID(0, 0))));
+    }
+
+    @Test
+    void exposesPublishedCountAndLagPerLane() {
+        OutboxEvent old = OutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .aggregateType("PRODUCT")
+                .aggregateId(UUID.randomUUID())
+                .type("ProductUpdated")
+                .payloadJson("old")
+                .occurredAt(Instant.now().minusSeconds(60))
+                .build();
+        unsent(old);
+        answer("old", CompletableFuture.completedFuture(null));
+
+        job.publishBatch(2);
+
+        assertThat(meterRegistry.counter("app.outbox.published", "lane", "2").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("app.outbox.lag").tag("lane", "2").timeGauge().value(TimeUnit.SECONDS))
+                .isGreaterThanOrEqualTo(60);
+        verify(repository).claimUnpublished(Instant.EPOCH, properties.getLanes(), 2, properties.getBatchSize(), List.of(new UUID(0, 0)));
+    }
+
+    @Test
+    void marksPublishedWithinTheBatchsOccurredAtRange() {
+        OutboxEvent first = event(UUID.randomUUID(), "first");
+        OutboxEvent second = OutboxEvent.builder()
+                .id(UUID.randomUUID())
+                .aggregateType("ORDER")
+                .aggregateId(UUID.randomUUID())
+                .type("OrderPaid")
+                .payloadJson("second")
+                .occurredAt(first.getOccurredAt().plusSeconds(5))
+                .build();
+        unsent(first, second);
+        answer("first", CompletableFuture.completedFuture(null));
+        answer("second", CompletableFuture.completedFuture(null));
+
+        job.publishBatch(0);
+
+        // Bounds the update to the partitions the batch came from.
+        verify(repository).markPublished(eq(List.of(first.getId(), second.getId())),
+                eq(first.getOccurredAt()), eq(second.getOccurredAt()), any());
+    }
+}
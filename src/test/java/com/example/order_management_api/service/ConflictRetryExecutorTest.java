@@ -0,0 +1,98 @@
+package com.example.order_management_api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class ConflictRetryExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ConflictRetryExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ConflictRetryProperties properties = new ConflictRetryProperties();
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoff(Duration.ZERO);
+        executor = new ConflictRetryExecutor(mock(PlatformTransactionManager.class), properties, meterRegistry);
+    }
+
+    private static RuntimeException conflict() {
+        return new ObjectOptimisticLockingFailureException("Inventory", "id");
+    }
+
+    private double count(String name) {
+        return meterRegistry.counter(name, "operation", "test").count();
+    }
+
+    @Test
+    void retriesConflictUntilItSucceeds() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = executor.inTransaction("test", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw conflict();
+            }
+            return "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(calls).hasValue(3);
+        assertThat(count("app.retry.conflict.attempts")).isEqualTo(3);
+        assertThat(count("app.retry.conflict.recovered")).isEqualTo(1);
+        assertThat(count("app.retry.conflict.exhausted")).isZero();
+    }
+
+    @Test
+    void givesUpAfterAttemptBudget() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.inTransaction("test", () -> {
+            calls.incrementAndGet();
+            throw conflict();
+        })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        assertThat(calls).hasValue(3);
+        assertThat(count("app.retry.conflict.exhausted")).isEqualTo(1);
+    }
+
+    @Test
+    void stopsRetryingOnceInterrupted() {
+        AtomicInteger calls = new AtomicInteger();
+
+        try {
+            assertThatThrownBy(() -> executor.inTransaction("test", () -> {
+                calls.incrementAndGet();
+                Thread.currentThread().interrupt();
+                throw conflict();
+            })).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+            assertThat(calls).hasValue(1);
+            assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void doesNotRetryBusinessErrors() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThatThrownBy(() -> executor.inTransaction("test", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("out of stock");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(calls).hasValue(1);
+    }
+}
@@ -9,90 +9,231 @@ import com.example.order_management_api.exception.OutOfStockException;
 import com.example.order_management_api.exception.ProductNotFoundException;
 import com.example.order_management_api.model.Inventory;
 import com.example.order_management_api.model.Product;
+import com.example.order_management_api.model.InventoryStripe;
+import com.example.order_management_api.repository.InventoryJournalRepository;
+import com.example.order_management_api.repository.InventoryJournalRepository.LiveStock;
 import com.example.order_management_api.repository.InventoryRepository;
+import com.example.order_management_api.repository.InventoryStripeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class InventoryServiceTest {
 
     private InventoryRepository inventoryRepository;
+    private InventoryStripeRepository inventoryStripeRepository;
+    private InventoryJournalRepository journalRepository;
     private final List<DomainEvent> publishedEvents = new ArrayList<>();
+    private InventoryProperties properties;
+    private SimpleMeterRegistry meterRegistry;
     private InventoryService inventoryService;
 
     @BeforeEach
     void setUp() {
         inventoryRepository = mock(InventoryRepository.class);
+        inventoryStripeRepository = mock(InventoryStripeRepository.class);
+        journalRepository = mock(InventoryJournalRepository.class);
         publishedEvents.clear();
         DomainEventPublisher recordingPublisher = publishedEvents::add;
+        properties = new InventoryProperties();
+        meterRegistry = new SimpleMeterRegistry();
         inventoryService = new InventoryService(
                 inventoryRepository,
+                inventoryStripeRepository,
                 recordingPublisher,
-                new SimulatedProcessingDelay(0)
+                new SimulatedProcessingDelay(0),
+                properties,
+                new InMemoryStock(journalRepository, properties),
+                new ProductCache(new ProductCacheProperties(), new SimpleMeterRegistry()),
+                meterRegistry
         );
     }
 
     private UUID givenInventory(int available) {
         UUID productId = UUID.randomUUID();
         Product product = new Product("Milk", BigDecimal.valueOf(3.99), true);
+        product.setId(productId);
         Inventory inventory = new Inventory(product, available, 0);
         when(inventoryRepository.findByProduct_Id(productId)).thenReturn(Optional.of(inventory));
+        when(inventoryRepository.findAllUnstripedForUpdate(Set.of(productId))).thenReturn(List.of(inventory));
         return productId;
     }
 
+    private Map<UUID, Product> products(UUID... productIds) {
+        Map<UUID, Product> products = new HashMap<>();
+        for (UUID productId : productIds) {
+            Product product = new Product("Milk", BigDecimal.valueOf(3.99), true);
+            product.setId(productId);
+            products.put(productId, product);
+        }
+        return products;
+    }
+
     @Test
-    void reserveDecreasesAvailableStock() {
+    void reserveMovesStockFromAvailableToReserved() {
         UUID productId = givenInventory(10);
 
-        Inventory inventory = inventoryService.reserve(productId, "Milk", 3);
+        inventoryService.reserveAll(Map.of(productId, 3), products(productId));
 
+        Inventory inventory = inventoryRepository.findByProduct_Id(productId).orElseThrow();
         assertThat(inventory.getAvailable()).isEqualTo(7);
+        assertThat(inventory.getReserved()).isEqualTo(3);
     }
 
     @Test
     void reserveThrowsWhenNotEnoughStock() {
         UUID productId = givenInventory(1);
 
-        assertThatThrownBy(() -> inventoryService.reserve(productId, "Milk", 2))
+        assertThatThrownBy(() -> inventoryService.reserveAll(Map.of(productId, 2), products(productId)))
                 .isInstanceOf(OutOfStockException.class);
     }
 
     @Test
     void reserveThrowsWhenInventoryMissing() {
         UUID productId = UUID.randomUUID();
-        when(inventoryRepository.findByProduct_Id(any())).thenReturn(Optional.empty());
+        when(inventoryRepository.findAllUnstripedForUpdate(any())).thenReturn(List.of());
 
-        assertThatThrownBy(() -> inventoryService.reserve(productId, "Milk", 1))
+        assertThatThrownBy(() -> inventoryService.reserveAll(Map.of(productId, 1), products(productId)))
                 .isInstanceOf(ProductNotFoundException.class);
     }
 
     @Test
-    void releaseRestoresStockAndPublishesEvent() {
-        UUID productId = givenInventory(7);
+    void reserveLeavesWholeCartUntouchedWhenOneLineIsShort() {
+        UUID plenty = givenInventory(10);
+        UUID scarce = givenInventory(1);
+        Inventory plentyInventory = inventoryRepository.findByProduct_Id(plenty).orElseThrow();
+        Inventory scarceInventory = inventoryRepository.findByProduct_Id(scarce).orElseThrow();
+        when(inventoryRepository.findAllUnstripedForUpdate(any())).thenReturn(List.of(plentyInventory, scarceInventory));
 
-        inventoryService.release(productId, 3);
+        Map<UUID, Integer> cart = new LinkedHashMap<>();
+        cart.put(plenty, 2);
+        cart.put(scarce, 2);
+
+        assertThatThrownBy(() -> inventoryService.reserveAll(cart, products(plenty, scarce)))
+                .isInstanceOf(OutOfStockException.class);
+
+        assertThat(plentyInventory.getAvailable()).isEqualTo(10);
+        assertThat(scarceInventory.getAvailable()).isEqualTo(1);
+    }
 
+    @Test
+    void reserveEachSkipsShortCartAndReservesTheOthers() {
+        UUID productId = givenInventory(3);
         Inventory inventory = inventoryRepository.findByProduct_Id(productId).orElseThrow();
+        when(inventoryRepository.findAllUnstripedForUpdate(any())).thenReturn(List.of(inventory));
+
+        Map<Integer, RuntimeException> failures = inventoryService.reserveEach(
+                List.of(Map.of(productId, 2), Map.of(productId, 2), Map.of(productId, 1)),
+                products(productId));
+
+        assertThat(failures).containsOnlyKeys(1);
+        assertThat(failures.get(1)).isInstanceOf(OutOfStockException.class);
+        assertThat(inventory.getAvailable()).isZero();
+        verify(inventoryRepository).findAllUnstripedForUpdate(any());
+    }
+
+    @Test
+    void conditionalReserveDoesNotReadInventoryWhenUpdateSucceeds() {
+        properties.setReservationMode(InventoryProperties.ReservationMode.CONDITIONAL_UPDATE);
+        UUID productId = UUID.randomUUID();
+        when(inventoryRepository.decrementAvailable(productId, 3)).thenReturn(1);
+
+        inventoryService.reserveAll(Map.of(productId, 3), products(productId));
+
+        verify(inventoryRepository).decrementAvailable(productId, 3);
+        verify(inventoryRepository, never()).findAllUnstripedForUpdate(any());
+        verify(inventoryRepository, never()).findAvailableByProductId(any());
+    }
+
+    @Test
+    void conditionalReserveThrowsWhenNotEnoughStock() {
+        properties.setReservationMode(InventoryProperties.ReservationMode.CONDITIONAL_UPDATE);
+        UUID productId = UUID.randomUUID();
+        when(inventoryRepository.decrementAvailable(productId, 2)).thenReturn(0);
+        when(inventoryRepository.findAvailableByProductId(productId)).thenReturn(Optional.of(1));
+
+        assertThatThrownBy(() -> inventoryService.reserveAll(Map.of(productId, 2), products(productId)))
+                .isInstanceOf(OutOfStockException.class)
+                .hasMessageContaining("available = 1");
+    }
+
+    @Test
+    void conditionalReserveThrowsWhenInventoryMissing() {
+        properties.setReservationMode(InventoryProperties.ReservationMode.CONDITIONAL_UPDATE);
+        UUID productId = UUID.randomUUID();
+        when(inventoryRepository.decrementAvailable(productId, 1)).thenReturn(0);
+        when(inventoryRepository.findAvailableByProductId(productId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> inventoryService.reserveAll(Map.of(productId, 1), products(productId)))
+                .isInstanceOf(ProductNotFoundException.class);
+    }
+
+    private Inventory givenHeldInventory(int available, int reserved) {
+        Inventory inventory = inventoryRepository.findByProduct_Id(givenInventory(available)).orElseThrow();
+        inventory.setReserved(reserved);
+        when(inventoryRepository.findAllForUpdate(any())).thenReturn(List.of(inventory));
+        return inventory;
+    }
+
+    @Test
+    void releaseRestoresStockAndPublishesEvent() {
+        Inventory inventory = givenHeldInventory(7, 3);
+        UUID productId = inventory.getProduct().getId();
+
+        inventoryService.releaseAll(Map.of(productId, 3));
+
         assertThat(inventory.getAvailable()).isEqualTo(10);
+        assertThat(inventory.getReserved()).isZero();
         assertThat(publishedEvents)
                 .singleElement()
                 .isInstanceOfSatisfying(StockAdjustedEvent.class, e -> {
                     assertThat(e.previousAvailable()).isEqualTo(7);
                     assertThat(e.newAvailable()).isEqualTo(10);
+                    assertThat(e.reserved()).isZero();
                 });
     }
 
+    @Test
+    void commitDropsReservedStockWithoutMakingItAvailable() {
+        Inventory inventory = givenHeldInventory(7, 3);
+
+        inventoryService.commitAll(Map.of(inventory.getProduct().getId(), 2));
+
+        assertThat(inventory.getAvailable()).isEqualTo(7);
+        assertThat(inventory.getReserved()).isEqualTo(1);
+        assertThat(publishedEvents).isEmpty();
+    }
+
+    @Test
+    void commitOfMoreThanIsReservedIsCountedAsUnderflow() {
+        Inventory inventory = givenHeldInventory(7, 1);
+
+        inventoryService.commitAll(Map.of(inventory.getProduct().getId(), 3));
+
+        assertThat(inventory.getReserved()).isZero();
+        assertThat(meterRegistry.counter("app.inventory.reserved.underflow").count()).isEqualTo(1);
+    }
+
     @Test
     void adjustWithDeltaChangesStock() {
         UUID productId = givenInventory(10);
@@ -121,4 +262,168 @@ class InventoryServiceTest {
 
         assertThat(publishedEvents).isEmpty();
     }
+
+    private Inventory givenStripedInventory(UUID productId, int... stripeStock) {
+        Product product = new Product("Console", BigDecimal.valueOf(499), true);
+        product.setId(productId);
+        Inventory inventory = new Inventory(product, 0, 0);
+        inventory.setStripeCount(stripeStock.length);
+
+        List<InventoryStripe> stripes = new ArrayList<>();
+        for (int i = 0; i < stripeStock.length; i++) {
+            stripes.add(new InventoryStripe(productId, i, stripeStock[i]));
+        }
+        inventory.setStripedAvailable(stripes.stream().mapToInt(InventoryStripe::getAvailable).sum());
+
+        when(inventoryRepository.findByProduct_Id(productId)).thenReturn(Optional.of(inventory));
+        when(inventoryStripeRepository.findAllForUpdate(productId)).thenReturn(stripes);
+        return inventory;
+    }
+
+    @Test
+    void stripedReserveTakesFromOneStripeWithoutTouchingInventoryRow() {
+        properties.setReservationMode(InventoryProperties.ReservationMode.CONDITIONAL_UPDATE);
+        UUID productId = UUID.randomUUID();
+        when(inventoryRepository.decrementAvailable(productId, 2)).thenReturn(0);
+        when(inventoryStripeRepository.decrementRandomFreeStripe(productId, 2)).thenReturn(1);
+
+        inventoryService.reserveAll(Map.of(productId, 2), products(productId));
+
+        verify(inventoryStripeRepository, never()).findAllForUpdate(any());
+        verify(inventoryRepository, never()).findAvailableByProductId(any());
+    }
+
+    @Test
+    void stripedReserveDrainsSeveralStripesWhenNoSingleStripeHasEnough() {
+        UUID productId = UUID.randomUUID();
+        Inventory inventory = givenStripedInventory(productId, 2, 2, 2);
+        when(inventoryRepository.findAllUnstripedForUpdate(any())).thenReturn(List.of());
+
+        inventoryService.reserveAll(Map.of(productId, 5), products(productId));
+
+        List<InventoryStripe> stripes = inventoryStripeRepository.findAllForUpdate(productId);
+        assertThat(stripes).extracting(InventoryStripe::getAvailable).containsExactly(0, 0, 1);
+        assertThat(stripes).extracting(InventoryStripe::getReserved).containsExactly(2, 2, 1);
+        assertThat(inventory.getAvailable()).isZero();
+        assertThat(inventory.getReserved()).isZero();
+    }
+
+    @Test
+    void stripedReleaseTakesReservedOffStripesAndSpreadsStockEvenly() {
+        UUID productId = UUID.randomUUID();
+        Inventory inventory = givenStripedInventory(productId, 0, 0, 1);
+        List<InventoryStripe> stripes = inventoryStripeRepository.findAllForUpdate(productId);
+        stripes.get(0).setReserved(2);
+        stripes.get(1).setReserved(2);
+        stripes.get(2).setReserved(1);
+        when(inventoryRepository.findAllForUpdate(any())).thenReturn(List.of(inventory));
+
+        inventoryService.releaseAll(Map.of(productId, 3));
+
+        assertThat(stripes).extracting(InventoryStripe::getReserved).containsExactly(0, 1, 1);
+        assertThat(stripes).extracting(InventoryStripe::getAvailable).containsExactly(2, 1, 1);
+        assertThat(publishedEvents)
+                .singleElement()
+                .isInstanceOfSatisfying(StockAdjustedEvent.class, e -> {
+                    assertThat(e.previousAvailable()).isEqualTo(1);
+                    assertThat(e.newAvailable()).isEqualTo(4);
+                    assertThat(e.reserved()).isEqualTo(2);
+                });
+    }
+
+    @Test
+    void stripedReserveThrowsWhenStripesTogetherAreShort() {
+        UUID productId = UUID.randomUUID();
+        givenStripedInventory(productId, 1, 1);
+        when(inventoryRepository.findAllUnstripedForUpdate(any())).thenReturn(List.of());
+
+        assertThatThrownBy(() -> inventoryService.reserveAll(Map.of(productId, 3), products(productId)))
+                .isInstanceOf(OutOfStockException.class)
+                .hasMessageContaining("available = 2");
+    }
+
+    @Test
+    void stripedAdjustRebalancesStripesAndReportsLogicalTotal() {
+        UUID productId = UUID.randomUUID();
+        Inventory inventory = givenStripedInventory(productId, 5, 0, 1);
+
+        inventoryService.adjust(productId, new UpdateStockRequest(4, null));
+
+        List<InventoryStripe> stripes = inventoryStripeRepository.findAllForUpdate(productId);
+        assertThat(stripes).extracting(InventoryStripe::getAvailable).containsExactly(4, 3, 3);
+        assertThat(inventory.getTotalAvailable()).isEqualTo(10);
+        assertThat(publishedEvents)
+                .singleElement()
+                .isInstanceOfSatisfying(StockAdjustedEvent.class, e -> {
+                    assertThat(e.previousAvailable()).isEqualTo(6);
+                    assertThat(e.newAvailable()).isEqualTo(10);
+                });
+    }
+
+    private UUID givenLiveStock(int available) {
+        UUID productId = givenInventory(available);
+        LiveStock stock = mock(LiveStock.class);
+        when(stock.getProductId()).thenReturn(productId);
+        when(stock.getAvailable()).thenReturn(available);
+        when(journalRepository.findLiveStock(productId)).thenReturn(Optional.of(stock));
+        return productId;
+    }
+
+    @Test
+    void inMemoryReserveJournalsWithoutTouchingInventoryRows() {
+        properties.setReservationMode(InventoryProperties.ReservationMode.IN_MEMORY);
+        UUID productId = givenLiveStock(10);
+
+        inventoryService.reserveAll(Map.of(productId, 3), products(productId));
+
+        assertThat(inventoryService.getInventory(productId).getTotalAvailable()).isEqualTo(7);
+        assertThat(inventoryRepository.findByProduct_Id(productId).orElseThrow().getAvailable()).isEqualTo(10);
+        verify(journalRepository).saveAll(anyList());
+        verify(inventoryRepository, never()).findAllUnstripedForUpdate(any());
+        verify(inventoryRepository, never()).decrementAvailable(any(), anyInt());
+    }
+
+    @Test
+    void inMemoryReserveGivesBackEarlierLinesWhenOneLineIsShort() {
+        properties.setReservationMode(InventoryProperties.ReservationMode.IN_MEMORY);
+        UUID plenty = givenLiveStock(10);
+        UUID scarce = givenLiveStock(1);
+
+        Map<UUID, Integer> cart = new LinkedHashMap<>();
+        cart.put(plenty, 2);
+        cart.put(scarce, 2);
+
+        assertThatThrownBy(() -> inventoryService.reserveAll(cart, products(plenty, scarce)))
+                .isInstanceOf(OutOfStockException.class)
+                .hasMessageContaining("available = 1");
+
+        assertThat(inventoryService.getInventory(plenty).getTotalAvailable()).isEqualTo(10);
+        assertThat(inventoryService.getInventory(scarce).getTotalAvailable()).isEqualTo(1);
+        verify(journalRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void inMemoryAdjustRejectsNegativeStockAndKeepsCount() {
+        properties.setReservationMode(InventoryProperties.ReservationMode.IN_MEMORY);
+        UUID productId = givenLiveStock(3);
+
+        assertThatThrownBy(() -> inventoryService.adjust(productId, new UpdateStockRequest(-5, null)))
+                .isInstanceOf(InsufficientStockException.class);
+
+        Inventory inventory = inventoryService.adjust(productId, new UpdateStockRequest(2, null));
+        assertThat(inventory.getTotalAvailable()).isEqualTo(5);
+        assertThat(publishedEvents).hasSize(1);
+    }
+
+    @Test
+    void applyPersistedDeltasFoldsJournalIntoInventoryRow() {
+        UUID productId = givenInventory(10);
+        Inventory inventory = inventoryRepository.findByProduct_Id(productId).orElseThrow();
+        when(inventoryRepository.findAllForUpdate(any())).thenReturn(List.of(inventory));
+
+        inventoryService.applyPersistedDeltas(Map.of(productId, new StockDelta(-4, 4)));
+
+        assertThat(inventory.getAvailable()).isEqualTo(6);
+        assertThat(inventory.getReserved()).isEqualTo(4);
+    }
 }
@@ -8,12 +8,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
-import java.util.Optional;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class OrderValidatorTest {
@@ -31,19 +35,22 @@ class OrderValidatorTest {
     void returnsProductWhenActive() {
         UUID productId = UUID.randomUUID();
         Product product = new Product("Milk", BigDecimal.valueOf(3.99), true);
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        product.setId(productId);
+        List<UUID> cart = List.of(productId);
+        when(productRepository.findAllById(cart)).thenReturn(List.of(product));
 
-        Product result = orderValidator.validateOrderable(productId);
+        Map<UUID, Product> result = orderValidator.validateOrderable(cart);
 
-        assertThat(result).isSameAs(product);
+        assertThat(result).containsExactly(Map.entry(productId, product));
     }
 
     @Test
     void throwsWhenProductDoesNotExist() {
         UUID productId = UUID.randomUUID();
-        when(productRepository.findById(productId)).thenReturn(Optional.empty());
+        List<UUID> cart = List.of(productId);
+        when(productRepository.findAllById(cart)).thenReturn(List.of());
 
-        assertThatThrownBy(() -> orderValidator.validateOrderable(productId))
+        assertThatThrownBy(() -> orderValidator.validateOrderable(cart))
                 .isInstanceOf(ProductNotFoundException.class);
     }
 
@@ -51,9 +58,52 @@ class OrderValidatorTest {
     void throwsWhenProductIsInactive() {
         UUID productId = UUID.randomUUID();
         Product product = new Product("Milk", BigDecimal.valueOf(3.99), false);
-        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        product.setId(productId);
+        List<UUID> cart = List.of(productId);
+        when(productRepository.findAllById(cart)).thenReturn(List.of(product));
 
-        assertThatThrownBy(() -> orderValidator.validateOrderable(productId))
+        assertThatThrownBy(() -> orderValidator.validateOrderable(cart))
+                .isInstanceOf(InactiveProductException.class);
+    }
+
+    @Test
+    void loadsWholeCartInOneQuery() {
+        UUID milkId = UUID.randomUUID();
+        UUID breadId = UUID.randomUUID();
+        Product milk = new Product("Milk", BigDecimal.valueOf(3.99), true);
+        milk.setId(milkId);
+        Product bread = new Product("Bread", BigDecimal.valueOf(2.50), true);
+        bread.setId(breadId);
+        List<UUID> cart = List.of(milkId, breadId);
+        when(productRepository.findAllById(cart)).thenReturn(List.of(milk, bread));
+
+        Map<UUID, Product> result = orderValidator.validateOrderable(cart);
+
+        assertThat(result).containsEntry(milkId, milk).containsEntry(breadId, bread);
+        verify(productRepository, never()).findById(any());
+    }
+
+    @Test
+    void batchThrowsWhenAnyProductIsMissing() {
+        UUID milkId = UUID.randomUUID();
+        Product milk = new Product("Milk", BigDecimal.valueOf(3.99), true);
+        milk.setId(milkId);
+        List<UUID> cart = List.of(milkId, UUID.randomUUID());
+        when(productRepository.findAllById(cart)).thenReturn(List.of(milk));
+
+        assertThatThrownBy(() -> orderValidator.validateOrderable(cart))
+                .isInstanceOf(ProductNotFoundException.class);
+    }
+
+    @Test
+    void batchThrowsWhenAnyProductIsInactive() {
+        UUID milkId = UUID.randomUUID();
+        Product milk = new Product("Milk", BigDecimal.valueOf(3.99), false);
+        milk.setId(milkId);
+        List<UUID> cart = List.of(milkId);
+        when(productRepository.findAllById(cart)).thenReturn(List.of(milk));
+
+        assertThatThrownBy(() -> orderValidator.validateOrderable(cart))
                 .isInstanceOf(InactiveProductException.class);
     }
 }